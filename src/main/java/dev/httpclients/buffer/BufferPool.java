@@ -0,0 +1,150 @@
+package dev.httpclients.buffer;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Size-class pool of direct {@link ByteBuffer}s.
+ * <p>
+ * Capacities are rounded up to a power of two between 4 KiB and 1 MiB. A buffer is first looked up in a small
+ * per-thread cache and then in a shared arena for its size class, and only allocated when both are empty. Requests
+ * above the largest size class get an unpooled direct buffer. Outstanding buffers are counted; with leak detection
+ * enabled, the allocation stack trace of each outstanding buffer is kept so tests can report where a leak came from.
+ */
+public final class BufferPool {
+
+    private static final int MIN_SHIFT = 12;
+    private static final int MAX_SHIFT = 20;
+    private static final int SIZE_CLASSES = MAX_SHIFT - MIN_SHIFT + 1;
+
+    private final int threadCacheSize;
+    private final int arenaSize;
+    private final ThreadLocal<ThreadCache> threadCaches = ThreadLocal.withInitial(ThreadCache::new);
+    private final List<ConcurrentLinkedQueue<PooledBuffer>> arenas = new ArrayList<>(SIZE_CLASSES);
+    private final AtomicInteger[] arenaCounts = new AtomicInteger[SIZE_CLASSES];
+    private final AtomicLong allocated = new AtomicLong();
+    private final AtomicLong outstanding = new AtomicLong();
+    private final Map<PooledBuffer, Throwable> leakTraces = new ConcurrentHashMap<>();
+    private volatile boolean leakDetection;
+
+    public BufferPool() {
+        this(32, 256);
+    }
+
+    /**
+     * @param threadCacheSize buffers kept per size class in each thread's cache
+     * @param arenaSize       buffers kept per size class in the shared arena; beyond that released buffers are dropped
+     */
+    public BufferPool(final int threadCacheSize, final int arenaSize) {
+        this.threadCacheSize = threadCacheSize;
+        this.arenaSize = arenaSize;
+        for (int i = 0; i < SIZE_CLASSES; i++) {
+            arenas.add(new ConcurrentLinkedQueue<>());
+            arenaCounts[i] = new AtomicInteger();
+        }
+    }
+
+    public PooledBuffer acquire(final int capacity) {
+        final int sizeClass = sizeClass(capacity);
+
+        PooledBuffer buffer = null;
+        if (sizeClass >= 0) {
+            buffer = threadCaches.get().buffers[sizeClass].pollFirst();
+            if (buffer == null) {
+                buffer = arenas.get(sizeClass).poll();
+                if (buffer != null) {
+                    arenaCounts[sizeClass].decrementAndGet();
+                }
+            }
+        }
+
+        if (buffer == null) {
+            final int size = sizeClass >= 0 ? 1 << (sizeClass + MIN_SHIFT) : capacity;
+            buffer = new PooledBuffer(this, ByteBuffer.allocateDirect(size), sizeClass);
+            allocated.incrementAndGet();
+        }
+
+        outstanding.incrementAndGet();
+        if (leakDetection) {
+            leakTraces.put(buffer, new Throwable("Buffer acquired here"));
+        }
+
+        return buffer.reset();
+    }
+
+    void recycle(final PooledBuffer buffer) {
+        outstanding.decrementAndGet();
+        leakTraces.remove(buffer);
+
+        final int sizeClass = buffer.sizeClass();
+        if (sizeClass < 0) {
+            return;
+        }
+
+        final ArrayDeque<PooledBuffer> cache = threadCaches.get().buffers[sizeClass];
+        if (cache.size() < threadCacheSize) {
+            cache.addFirst(buffer);
+        } else if (arenaCounts[sizeClass].incrementAndGet() <= arenaSize) {
+            arenas.get(sizeClass).offer(buffer);
+        } else {
+            arenaCounts[sizeClass].decrementAndGet();
+        }
+    }
+
+    /**
+     * Number of direct buffers allocated by this pool so far; stays flat once the pool is warm.
+     */
+    public long allocated() {
+        return allocated.get();
+    }
+
+    /**
+     * Number of buffers acquired and not yet released.
+     */
+    public long outstanding() {
+        return outstanding.get();
+    }
+
+    public void setLeakDetection(final boolean leakDetection) {
+        this.leakDetection = leakDetection;
+        if (!leakDetection) {
+            leakTraces.clear();
+        }
+    }
+
+    /**
+     * Allocation stack traces of buffers that are still outstanding. Only populated while leak detection is enabled.
+     */
+    public List<Throwable> leaks() {
+        return List.copyOf(leakTraces.values());
+    }
+
+    private static int sizeClass(final int capacity) {
+        if (capacity > 1 << MAX_SHIFT) {
+            return -1;
+        }
+
+        final int shift = 32 - Integer.numberOfLeadingZeros(Math.max(capacity, 1) - 1);
+
+        return Math.max(shift, MIN_SHIFT) - MIN_SHIFT;
+    }
+
+    private static final class ThreadCache {
+
+        @SuppressWarnings("unchecked")
+        private final ArrayDeque<PooledBuffer>[] buffers = (ArrayDeque<PooledBuffer>[]) new ArrayDeque<?>[SIZE_CLASSES];
+
+        private ThreadCache() {
+            for (int i = 0; i < SIZE_CLASSES; i++) {
+                buffers[i] = new ArrayDeque<>();
+            }
+        }
+    }
+}
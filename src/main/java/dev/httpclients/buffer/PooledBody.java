@@ -0,0 +1,282 @@
+package dev.httpclients.buffer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Request or response body held in a chain of {@link PooledBuffer}s.
+ * <p>
+ * The body owns its buffers and returns them to the pool on {@link #close()}. Views handed out by
+ * {@link #inputStream()}, {@link #publisher()} and {@link #writeTo(WritableByteChannel)} read from the pooled memory
+ * directly, so they must not be used after the body is closed.
+ */
+public final class PooledBody implements AutoCloseable {
+
+    static final int CHUNK_SIZE = 16 * 1024;
+
+    private final List<PooledBuffer> chunks;
+    private final long size;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    PooledBody(final List<PooledBuffer> chunks) {
+        this.chunks = chunks;
+        long total = 0;
+        for (final PooledBuffer chunk : chunks) {
+            total += chunk.buffer().remaining();
+        }
+        this.size = total;
+    }
+
+    /**
+     * Serializes a body straight into pooled buffers, e.g. {@code PooledBody.write(pool, out -> mapper.writeValue(out, value))}.
+     */
+    public static PooledBody write(final BufferPool pool, final BodyWriter writer) throws IOException {
+        final ChunkWriter out = new ChunkWriter(pool);
+        try {
+            writer.writeTo(out);
+        } catch (IOException | RuntimeException e) {
+            out.body().close();
+            throw e;
+        }
+
+        return out.body();
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public InputStream inputStream() {
+        return new ChunkInputStream();
+    }
+
+    public long writeTo(final WritableByteChannel channel) throws IOException {
+        long written = 0;
+        for (final PooledBuffer chunk : chunks) {
+            final ByteBuffer view = chunk.buffer().duplicate();
+            while (view.hasRemaining()) {
+                written += channel.write(view);
+            }
+        }
+
+        return written;
+    }
+
+    public byte[] toByteArray() {
+        final byte[] bytes = new byte[Math.toIntExact(size)];
+        int offset = 0;
+        for (final PooledBuffer chunk : chunks) {
+            final ByteBuffer view = chunk.buffer().duplicate();
+            final int length = view.remaining();
+            view.get(bytes, offset, length);
+            offset += length;
+        }
+
+        return bytes;
+    }
+
+    /**
+     * Publishes the pooled chunks as read-only views. The body can be published more than once (e.g. on retries) and
+     * should be closed only after the exchange using it has completed.
+     */
+    public HttpRequest.BodyPublisher publisher() {
+        return new ChunkPublisher();
+    }
+
+    @Override
+    public void close() {
+        if (released.compareAndSet(false, true)) {
+            for (final PooledBuffer chunk : chunks) {
+                chunk.release();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface BodyWriter {
+
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Copies incoming bytes into pooled chunks of {@link #CHUNK_SIZE}.
+     */
+    static final class ChunkWriter extends OutputStream {
+
+        private final BufferPool pool;
+        private final List<PooledBuffer> chunks = new ArrayList<>();
+        private ByteBuffer current;
+
+        ChunkWriter(final BufferPool pool) {
+            this.pool = pool;
+        }
+
+        @Override
+        public void write(final int b) {
+            writable().put((byte) b);
+        }
+
+        @Override
+        public void write(final byte[] bytes, final int offset, final int length) {
+            int position = offset;
+            int remaining = length;
+            while (remaining > 0) {
+                final ByteBuffer target = writable();
+                final int count = Math.min(remaining, target.remaining());
+                target.put(bytes, position, count);
+                position += count;
+                remaining -= count;
+            }
+        }
+
+        void write(final ByteBuffer source) {
+            while (source.hasRemaining()) {
+                final ByteBuffer target = writable();
+                if (source.remaining() <= target.remaining()) {
+                    target.put(source);
+                } else {
+                    final int limit = source.limit();
+                    source.limit(source.position() + target.remaining());
+                    target.put(source);
+                    source.limit(limit);
+                }
+            }
+        }
+
+        PooledBody body() {
+            for (final PooledBuffer chunk : chunks) {
+                chunk.buffer().flip();
+            }
+            current = null;
+
+            return new PooledBody(chunks);
+        }
+
+        private ByteBuffer writable() {
+            if (current == null || !current.hasRemaining()) {
+                final PooledBuffer chunk = pool.acquire(CHUNK_SIZE);
+                chunks.add(chunk);
+                current = chunk.buffer();
+            }
+
+            return current;
+        }
+    }
+
+    private final class ChunkInputStream extends InputStream {
+
+        private int index;
+        private ByteBuffer current = chunks.isEmpty() ? null : chunks.get(0).buffer().duplicate();
+
+        @Override
+        public int read() {
+            final ByteBuffer buffer = readable();
+
+            return buffer == null ? -1 : buffer.get() & 0xFF;
+        }
+
+        @Override
+        public int read(final byte[] bytes, final int offset, final int length) {
+            if (length == 0) {
+                return 0;
+            }
+
+            final ByteBuffer buffer = readable();
+            if (buffer == null) {
+                return -1;
+            }
+
+            final int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+
+            return count;
+        }
+
+        private ByteBuffer readable() {
+            while (current != null && !current.hasRemaining()) {
+                current = ++index < chunks.size() ? chunks.get(index).buffer().duplicate() : null;
+            }
+
+            return current;
+        }
+    }
+
+    private final class ChunkPublisher implements HttpRequest.BodyPublisher {
+
+        @Override
+        public long contentLength() {
+            return size;
+        }
+
+        @Override
+        public void subscribe(final Flow.Subscriber<? super ByteBuffer> subscriber) {
+            final ChunkSubscription subscription = new ChunkSubscription(subscriber);
+            subscriber.onSubscribe(subscription);
+            subscription.drain();
+        }
+    }
+
+    private final class ChunkSubscription implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super ByteBuffer> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile Throwable error;
+        private volatile boolean done;
+        private int index;
+
+        private ChunkSubscription(final Flow.Subscriber<? super ByteBuffer> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(final long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("non-positive subscription request: " + n);
+                drain();
+                return;
+            }
+
+            demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            done = true;
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+
+            do {
+                if (!done && error != null) {
+                    done = true;
+                    subscriber.onError(error);
+                }
+
+                while (!done && index < chunks.size() && demand.get() > 0) {
+                    demand.decrementAndGet();
+                    subscriber.onNext(chunks.get(index++).buffer().asReadOnlyBuffer());
+                }
+
+                if (!done && index == chunks.size()) {
+                    done = true;
+                    subscriber.onComplete();
+                }
+            } while (wip.decrementAndGet() != 0);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package dev.httpclients.buffer;
+
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.function.Function;
+
+/**
+ * {@link HttpResponse.BodyHandler}s that collect the response into pooled direct buffers instead of a growing heap
+ * {@code byte[]} as {@link HttpResponse.BodyHandlers#ofByteArray()} does.
+ */
+public final class PooledBodyHandlers {
+
+    private PooledBodyHandlers() {
+    }
+
+    /**
+     * The caller owns the returned {@link PooledBody} and must close it.
+     */
+    public static HttpResponse.BodyHandler<PooledBody> ofPooledBody(final BufferPool pool) {
+        return responseInfo -> new PooledBodySubscriber(pool);
+    }
+
+    /**
+     * Maps the pooled body, e.g. with {@code body -> mapper.readValue(body.inputStream(), type)}, and releases it right
+     * after the mapper returns.
+     */
+    public static <T> HttpResponse.BodyHandler<T> ofPooledBody(final BufferPool pool,
+                                                               final Function<PooledBody, T> mapper) {
+        return responseInfo -> HttpResponse.BodySubscribers.mapping(new PooledBodySubscriber(pool), body -> {
+            try (body) {
+                return mapper.apply(body);
+            }
+        });
+    }
+
+    private static final class PooledBodySubscriber implements HttpResponse.BodySubscriber<PooledBody> {
+
+        private final CompletableFuture<PooledBody> result = new CompletableFuture<>();
+        private final PooledBody.ChunkWriter writer;
+
+        private PooledBodySubscriber(final BufferPool pool) {
+            this.writer = new PooledBody.ChunkWriter(pool);
+        }
+
+        @Override
+        public CompletionStage<PooledBody> getBody() {
+            return result;
+        }
+
+        @Override
+        public void onSubscribe(final Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(final List<ByteBuffer> items) {
+            for (final ByteBuffer item : items) {
+                writer.write(item);
+            }
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            writer.body().close();
+            result.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            result.complete(writer.body());
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package dev.httpclients.buffer;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reference-counted direct {@link ByteBuffer} owned by a {@link BufferPool}. The buffer returns to its pool when the
+ * last reference is released and must not be touched afterwards.
+ */
+public final class PooledBuffer {
+
+    private final BufferPool pool;
+    private final ByteBuffer buffer;
+    private final int sizeClass;
+    private final AtomicInteger refCnt = new AtomicInteger();
+
+    PooledBuffer(final BufferPool pool, final ByteBuffer buffer, final int sizeClass) {
+        this.pool = pool;
+        this.buffer = buffer;
+        this.sizeClass = sizeClass;
+    }
+
+    public ByteBuffer buffer() {
+        return buffer;
+    }
+
+    public int capacity() {
+        return buffer.capacity();
+    }
+
+    public int refCnt() {
+        return refCnt.get();
+    }
+
+    public PooledBuffer retain() {
+        if (refCnt.getAndUpdate(count -> count > 0 ? count + 1 : count) <= 0) {
+            throw new IllegalStateException("Buffer already released");
+        }
+
+        return this;
+    }
+
+    /**
+     * Drops one reference. Returns {@code true} if this was the last one and the buffer went back to the pool.
+     */
+    public boolean release() {
+        final int count = refCnt.decrementAndGet();
+        if (count < 0) {
+            refCnt.incrementAndGet();
+            throw new IllegalStateException("Buffer already released");
+        }
+
+        if (count == 0) {
+            pool.recycle(this);
+            return true;
+        }
+
+        return false;
+    }
+
+    int sizeClass() {
+        return sizeClass;
+    }
+
+    PooledBuffer reset() {
+        buffer.clear();
+        refCnt.set(1);
+
+        return this;
+    }
+}
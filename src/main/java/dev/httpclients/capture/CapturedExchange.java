@@ -0,0 +1,19 @@
+package dev.httpclients.capture;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A single recorded request/response pair. Bodies are serialized as base64 by Jackson.
+ */
+public record CapturedExchange(
+        long timestamp,
+        String method,
+        String uri,
+        Map<String, List<String>> requestHeaders,
+        byte[] requestBody,
+        int status,
+        Map<String, List<String>> responseHeaders,
+        byte[] responseBody,
+        long latencyMillis
+) { }
@@ -0,0 +1,85 @@
+package dev.httpclients.capture;
+
+import java.io.ByteArrayOutputStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+/**
+ * Sends requests through a JDK {@link HttpClient} and records every completed exchange.
+ * <p>
+ * Request bodies are captured by subscribing to the {@link HttpRequest.BodyPublisher} once more, which works for
+ * the replayable publishers from {@link HttpRequest.BodyPublishers} ({@code ofString}, {@code ofByteArray},
+ * {@code ofFile}), but not for {@code ofInputStream}.
+ */
+public final class JavaHttpClientCapture {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final HttpClient client;
+    private final TrafficRecorder recorder;
+
+    public JavaHttpClientCapture(final HttpClient client, final TrafficRecorder recorder) {
+        this.client = client;
+        this.recorder = recorder;
+    }
+
+    public CompletableFuture<HttpResponse<byte[]>> sendAsync(final HttpRequest request) {
+        final byte[] requestBody = request.bodyPublisher()
+                                          .map(JavaHttpClientCapture::collect)
+                                          .orElse(EMPTY);
+        final long start = System.nanoTime();
+
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                     .thenApply(response -> {
+                         recorder.record(new CapturedExchange(System.currentTimeMillis(),
+                                                              request.method(),
+                                                              request.uri().toString(),
+                                                              request.headers().map(),
+                                                              requestBody,
+                                                              response.statusCode(),
+                                                              Map.copyOf(response.headers().map()),
+                                                              response.body(),
+                                                              (System.nanoTime() - start) / 1_000_000L));
+
+                         return response;
+                     });
+    }
+
+    private static byte[] collect(final HttpRequest.BodyPublisher publisher) {
+        final CompletableFuture<byte[]> body = new CompletableFuture<>();
+
+        publisher.subscribe(new Flow.Subscriber<>() {
+
+            private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            @Override
+            public void onSubscribe(final Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(final ByteBuffer item) {
+                final byte[] chunk = new byte[item.remaining()];
+                item.get(chunk);
+                out.writeBytes(chunk);
+            }
+
+            @Override
+            public void onError(final Throwable throwable) {
+                body.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                body.complete(out.toByteArray());
+            }
+        });
+
+        return body.join();
+    }
+}
@@ -0,0 +1,113 @@
+package dev.httpclients.capture;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local HTTP server that serves exchanges recorded by {@link TrafficRecorder}.
+ * <p>
+ * Exchanges are matched on method, path and query. When several exchanges share a key they are served round-robin,
+ * each one after its own recorded latency, so the replayed latency distribution matches the captured one.
+ */
+public final class ReplayServer implements AutoCloseable {
+
+    private static final Set<String> SKIPPED_HEADERS = Set.of("content-length", "transfer-encoding", "connection", "date");
+
+    private final Map<String, Recording> recordings = new HashMap<>();
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private ReplayServer(final List<CapturedExchange> exchanges, final int port) throws IOException {
+        for (final CapturedExchange exchange : exchanges) {
+            recordings.computeIfAbsent(key(exchange.method(), URI.create(exchange.uri())), key -> new Recording())
+                      .exchanges.add(exchange);
+        }
+
+        this.executor = Executors.newCachedThreadPool();
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.server.setExecutor(executor);
+        this.server.createContext("/", this::handle);
+        this.server.start();
+    }
+
+    public static ReplayServer start(final Path capture) throws IOException {
+        return start(capture, 0);
+    }
+
+    public static ReplayServer start(final Path capture, final int port) throws IOException {
+        return new ReplayServer(TrafficRecorder.read(capture), port);
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    private void handle(final HttpExchange http) throws IOException {
+        try (http) {
+            final Recording recording = recordings.get(key(http.getRequestMethod(), http.getRequestURI()));
+            if (recording == null) {
+                final byte[] body = ("No recorded exchange for " + http.getRequestMethod() + " " + http.getRequestURI())
+                        .getBytes(StandardCharsets.UTF_8);
+                http.sendResponseHeaders(404, body.length);
+                http.getResponseBody().write(body);
+                return;
+            }
+
+            final CapturedExchange exchange = recording.next();
+            http.getRequestBody().transferTo(OutputStream.nullOutputStream());
+
+            TimeUnit.MILLISECONDS.sleep(exchange.latencyMillis());
+
+            exchange.responseHeaders().forEach((name, values) -> {
+                if (!SKIPPED_HEADERS.contains(name.toLowerCase())) {
+                    http.getResponseHeaders().put(name, values);
+                }
+            });
+
+            final byte[] body = exchange.responseBody();
+            http.sendResponseHeaders(exchange.status(), body.length == 0 ? -1 : body.length);
+            http.getResponseBody().write(body);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String key(final String method, final URI uri) {
+        return uri.getRawQuery() == null
+               ? method + " " + uri.getRawPath()
+               : method + " " + uri.getRawPath() + "?" + uri.getRawQuery();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private static final class Recording {
+
+        private final List<CapturedExchange> exchanges = new ArrayList<>();
+        private final AtomicInteger cursor = new AtomicInteger();
+
+        private CapturedExchange next() {
+            return exchanges.get(Math.floorMod(cursor.getAndIncrement(), exchanges.size()));
+        }
+    }
+}
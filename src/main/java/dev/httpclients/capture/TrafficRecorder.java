@@ -0,0 +1,73 @@
+package dev.httpclients.capture;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only JSONL sink for {@link CapturedExchange}s, one exchange per line.
+ */
+public final class TrafficRecorder implements Closeable {
+
+    static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private static final byte NEW_LINE = '\n';
+
+    private final FileChannel channel;
+
+    public TrafficRecorder(final Path file) throws IOException {
+        this.channel = FileChannel.open(file,
+                                        StandardOpenOption.CREATE,
+                                        StandardOpenOption.WRITE,
+                                        StandardOpenOption.APPEND);
+    }
+
+    public void record(final CapturedExchange exchange) {
+        try {
+            final byte[] json = OBJECT_MAPPER.writeValueAsBytes(exchange);
+            final ByteBuffer line = ByteBuffer.allocate(json.length + 1)
+                                              .put(json)
+                                              .put(NEW_LINE)
+                                              .flip();
+
+            synchronized (channel) {
+                while (line.hasRemaining()) {
+                    channel.write(line);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static List<CapturedExchange> read(final Path file) throws IOException {
+        final List<CapturedExchange> exchanges = new ArrayList<>();
+
+        try (final BufferedReader reader = Files.newBufferedReader(file)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    exchanges.add(OBJECT_MAPPER.readValue(line, CapturedExchange.class));
+                }
+            }
+        }
+
+        return exchanges;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
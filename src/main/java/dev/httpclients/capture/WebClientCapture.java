@@ -0,0 +1,99 @@
+package dev.httpclients.capture;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.http.client.reactive.ClientHttpRequestDecorator;
+import org.springframework.web.reactive.function.BodyInserter;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * {@link ExchangeFilterFunction} that records every exchange passing through a WebClient.
+ * <p>
+ * The response body is buffered in full so that the recorded latency covers the whole exchange; the buffered
+ * bytes are handed downstream unchanged.
+ */
+public final class WebClientCapture {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private WebClientCapture() {
+    }
+
+    public static ExchangeFilterFunction filter(final TrafficRecorder recorder) {
+        return (request, next) -> {
+            final AtomicReference<byte[]> requestBody = new AtomicReference<>(EMPTY);
+            final ClientRequest capturing = ClientRequest.from(request)
+                                                         .body(capturingInserter(request.body(), requestBody))
+                                                         .build();
+
+            return Mono.fromSupplier(System::nanoTime)
+                       .flatMap(start -> next.exchange(capturing)
+                                             .flatMap(response -> record(recorder, request, requestBody, response, start)));
+        };
+    }
+
+    private static Mono<ClientResponse> record(final TrafficRecorder recorder,
+                                               final ClientRequest request,
+                                               final AtomicReference<byte[]> requestBody,
+                                               final ClientResponse response,
+                                               final long start) {
+        return DataBufferUtils.join(response.bodyToFlux(DataBuffer.class))
+                              .map(buffer -> {
+                                  final byte[] bytes = toBytes(buffer);
+                                  DataBufferUtils.release(buffer);
+
+                                  return bytes;
+                              })
+                              .defaultIfEmpty(EMPTY)
+                              .map(body -> {
+                                  recorder.record(new CapturedExchange(System.currentTimeMillis(),
+                                                                       request.method().name(),
+                                                                       request.url().toString(),
+                                                                       Map.copyOf(request.headers()),
+                                                                       requestBody.get(),
+                                                                       response.statusCode().value(),
+                                                                       Map.copyOf(response.headers().asHttpHeaders()),
+                                                                       body,
+                                                                       (System.nanoTime() - start) / 1_000_000L));
+
+                                  return response.mutate()
+                                                 .body(ignored -> Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(body)))
+                                                 .build();
+                              });
+    }
+
+    private static BodyInserter<?, ? super ClientHttpRequest> capturingInserter(final BodyInserter<?, ? super ClientHttpRequest> delegate,
+                                                                                final AtomicReference<byte[]> sink) {
+        return (outputMessage, context) -> delegate.insert(new ClientHttpRequestDecorator(outputMessage) {
+
+            @Override
+            public Mono<Void> writeWith(final Publisher<? extends DataBuffer> body) {
+                return super.writeWith(DataBufferUtils.join(body)
+                                                      .doOnNext(joined -> sink.set(toBytes(joined))));
+            }
+
+            @Override
+            public Mono<Void> writeAndFlushWith(final Publisher<? extends Publisher<? extends DataBuffer>> body) {
+                return writeWith(Flux.from(body).concatMap(Flux::from));
+            }
+        }, context);
+    }
+
+    private static byte[] toBytes(final DataBuffer buffer) {
+        final byte[] bytes = new byte[buffer.readableByteCount()];
+        buffer.toByteBuffer(buffer.readPosition(), ByteBuffer.wrap(bytes), 0, bytes.length);
+
+        return bytes;
+    }
+}
@@ -0,0 +1,18 @@
+package dev.httpclients.codegen;
+
+import java.util.List;
+
+/**
+ * A {@link GeneratedClient} interface: where the implementations go and what they implement.
+ */
+record ClientModel(
+        String packageName,
+        String interfaceName,
+        String flatName,
+        List<ExchangeMethod> methods
+) {
+
+    String qualified(final String simpleName) {
+        return packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+    }
+}
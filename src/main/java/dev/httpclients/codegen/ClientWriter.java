@@ -0,0 +1,167 @@
+package dev.httpclients.codegen;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Shared skeleton of the generated sources: class header, method signatures and URI template expansion. Engine
+ * specifics live in {@link JdkClientWriter} and {@link WebClientWriter}.
+ */
+abstract class ClientWriter {
+
+    protected final ClientModel model;
+    protected final List<String> bodyTypes = new ArrayList<>();
+    private final StringBuilder out = new StringBuilder();
+
+    ClientWriter(final ClientModel model) {
+        this.model = model;
+        for (final ExchangeMethod method : model.methods()) {
+            if (method.bodyType() != null && !bodyTypes.contains(method.bodyType())) {
+                bodyTypes.add(method.bodyType());
+            }
+        }
+    }
+
+    static ClientWriter of(final GeneratedClient.Engine engine, final ClientModel model) {
+        return switch (engine) {
+            case JDK -> new JdkClientWriter(model);
+            case WEB_CLIENT -> new WebClientWriter(model);
+        };
+    }
+
+    abstract String prefix();
+
+    abstract List<String> imports();
+
+    abstract void members();
+
+    abstract void call(int index, ExchangeMethod method);
+
+    abstract void request(int index, ExchangeMethod method);
+
+    final String simpleName() {
+        return prefix() + "_" + model.flatName();
+    }
+
+    final String write() {
+        if (!model.packageName().isEmpty()) {
+            line(0, "package " + model.packageName() + ";");
+            line(0, "");
+        }
+        for (final String type : imports()) {
+            line(0, "import " + type + ";");
+        }
+        line(0, "");
+        line(0, "@javax.annotation.processing.Generated(\"" + GeneratedClientProcessor.class.getName() + "\")");
+        line(0, "public final class " + simpleName() + " implements " + model.interfaceName() + " {");
+        line(0, "");
+        members();
+
+        for (int i = 0; i < model.methods().size(); i++) {
+            final ExchangeMethod method = model.methods().get(i);
+            line(0, "");
+            line(1, "@Override");
+            line(1, "public " + method.returnType() + " " + method.name() + "(" + parameters(method) + ")"
+                    + (method.thrownTypes().isEmpty() ? "" : " throws " + String.join(", ", method.thrownTypes()))
+                    + " {");
+            call(i, method);
+            line(1, "}");
+            line(0, "");
+            request(i, method);
+        }
+        line(0, "}");
+
+        return out.toString();
+    }
+
+    final String typeIndex(final String bodyType) {
+        return String.valueOf(bodyTypes.indexOf(bodyType));
+    }
+
+    final void line(final int indent, final String text) {
+        if (!text.isEmpty()) {
+            out.append("    ".repeat(indent)).append(text);
+        }
+        out.append('\n');
+    }
+
+    static String parameters(final ExchangeMethod method) {
+        return method.parameters()
+                     .stream()
+                     .map(parameter -> "final " + parameter.type() + " " + parameter.name())
+                     .collect(Collectors.joining(", "));
+    }
+
+    static String arguments(final ExchangeMethod method) {
+        return method.parameters()
+                     .stream()
+                     .map(ExchangeMethod.Parameter::name)
+                     .collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Emits {@code _uri}: the base URL and template literals concatenated with the encoded path variables, followed
+     * by the query parameters. Literals are sized up front, so the builder normally never grows.
+     */
+    final void uri(final ExchangeMethod method) {
+        int literalLength = 0;
+        int variables = 0;
+        final StringBuilder appends = new StringBuilder();
+        for (final ExchangeMethod.UriPart part : method.uri()) {
+            if (part.variable()) {
+                variables++;
+                appends.append(".append(GeneratedClientSupport.pathSegment(")
+                       .append(part.text())
+                       .append(", ")
+                       .append(literal(part.text()))
+                       .append("))");
+            } else {
+                literalLength += part.text().length();
+                appends.append(".append(").append(literal(part.text())).append(')');
+            }
+        }
+
+        final int capacity = literalLength + 16 * variables;
+        line(2, method.absolute()
+                ? "final StringBuilder _uri = new StringBuilder(" + capacity + ")" + appends + ";"
+                : "final StringBuilder _uri = new StringBuilder(baseUrl.length() + " + capacity + ").append(baseUrl)"
+                  + appends + ";");
+        for (final ExchangeMethod.Parameter parameter : method.parameters()) {
+            if (parameter.kind() == ExchangeMethod.Kind.QUERY) {
+                line(2, "GeneratedClientSupport.appendQuery(_uri, " + literal(parameter.key()) + ", " + parameter.name() + ");");
+            }
+        }
+    }
+
+    final void headers(final ExchangeMethod method) {
+        for (final ExchangeMethod.Parameter parameter : method.parameters()) {
+            if (parameter.kind() == ExchangeMethod.Kind.HEADER) {
+                line(2, "GeneratedClientSupport.header(_request, " + literal(parameter.key()) + ", " + parameter.name() + ");");
+            }
+        }
+        if (method.accept() != null) {
+            line(2, "_request.header(\"Accept\", " + literal(method.accept()) + ");");
+        }
+    }
+
+    static String literal(final String text) {
+        if (text == null) {
+            return "null";
+        }
+
+        final StringBuilder literal = new StringBuilder("\"");
+        for (final char c : text.toCharArray()) {
+            switch (c) {
+                case '"' -> literal.append("\\\"");
+                case '\\' -> literal.append("\\\\");
+                case '\n' -> literal.append("\\n");
+                case '\r' -> literal.append("\\r");
+                case '\t' -> literal.append("\\t");
+                default -> literal.append(c);
+            }
+        }
+
+        return literal.append('"').toString();
+    }
+}
@@ -0,0 +1,66 @@
+package dev.httpclients.codegen;
+
+import java.util.List;
+
+/**
+ * One interface method as seen by the code writers: all types are source strings, the URI template is already split
+ * into literal and variable parts.
+ */
+record ExchangeMethod(
+        String name,
+        String returnType,
+        List<String> thrownTypes,
+        Wrapper wrapper,
+        Result result,
+        String bodyType,
+        String httpMethod,
+        List<UriPart> uri,
+        String contentType,
+        String accept,
+        List<Parameter> parameters
+) {
+
+    /**
+     * How the result is handed to the caller.
+     */
+    enum Wrapper {
+        MONO,
+        FUTURE,
+        NONE
+    }
+
+    /**
+     * What the caller gets: the decoded body, a {@code ResponseEntity} of it, or nothing. {@code bodyType} is
+     * {@code null} when no body is decoded.
+     */
+    enum Result {
+        BODY,
+        ENTITY,
+        NONE
+    }
+
+    enum Kind {
+        PATH,
+        QUERY,
+        HEADER,
+        BODY
+    }
+
+    record Parameter(String name, String type, boolean primitive, Kind kind, String key) {
+    }
+
+    /**
+     * A literal piece of the URI template, or a path variable when {@code variable} is set (then {@code text} is the
+     * Java parameter name).
+     */
+    record UriPart(String text, boolean variable) {
+    }
+
+    boolean absolute() {
+        return !uri.isEmpty() && !uri.get(0).variable() && uri.get(0).text().matches("(?i)^https?://.*");
+    }
+
+    Parameter body() {
+        return parameters.stream().filter(parameter -> parameter.kind() == Kind.BODY).findFirst().orElse(null);
+    }
+}
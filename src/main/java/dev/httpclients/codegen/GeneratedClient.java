@@ -0,0 +1,30 @@
+package dev.httpclients.codegen;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an {@code @HttpExchange} interface for build-time implementation by {@link GeneratedClientProcessor}.
+ * <p>
+ * For an interface {@code UserClient} the processor writes {@code Jdk_UserClient} (constructor
+ * {@code (java.net.http.HttpClient, String baseUrl, ObjectMapper)}) and {@code WebClient_UserClient} (constructor
+ * {@code (WebClient, String baseUrl)}) into the same package; nested interfaces are prefixed with their enclosing
+ * types, e.g. {@code Jdk_Outer_UserClient}. The generated classes call the engine directly: URI templates are
+ * expanded by string concatenation and response types are resolved once per instance, so no proxy or reflection is
+ * involved per call.
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.CLASS)
+public @interface GeneratedClient {
+
+    Engine[] engines() default {Engine.JDK, Engine.WEB_CLIENT};
+
+    enum Engine {
+        JDK,
+        WEB_CLIENT
+    }
+}
@@ -0,0 +1,446 @@
+package dev.httpclients.codegen;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ValueConstants;
+import org.springframework.web.service.annotation.DeleteExchange;
+import org.springframework.web.service.annotation.GetExchange;
+import org.springframework.web.service.annotation.HttpExchange;
+import org.springframework.web.service.annotation.PatchExchange;
+import org.springframework.web.service.annotation.PostExchange;
+import org.springframework.web.service.annotation.PutExchange;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Generates engine-specific implementations of {@link GeneratedClient} interfaces.
+ * <p>
+ * Supported are the {@code @HttpExchange} family on the interface and its methods, {@code @PathVariable},
+ * {@code @RequestParam}, {@code @RequestHeader} and {@code @RequestBody} parameters, and results of type {@code T},
+ * {@code ResponseEntity<T>}, {@code void}, or any of these wrapped in {@code Mono} or {@code CompletableFuture}.
+ * Named values are always required, as with the proxy's defaults: a {@code null} path variable, query parameter or
+ * header fails the call. Anything else ({@code Flux}, {@code URI}/{@code HttpHeaders} arguments, {@code Map} or
+ * {@code Optional} arguments, {@code required = false}, {@code defaultValue}, {@code @RequestParam} on form-encoded
+ * requests, generic methods) is a compile error, so a generated client never silently behaves differently from the
+ * {@code HttpServiceProxyFactory} proxy.
+ * <p>
+ * Registered through {@code META-INF/services}; the project itself compiles its main sources with {@code -proc:none}
+ * and picks the processor up for test sources.
+ */
+@SupportedAnnotationTypes("dev.httpclients.codegen.GeneratedClient")
+public final class GeneratedClientProcessor extends AbstractProcessor {
+
+    private static final String MONO = "reactor.core.publisher.Mono";
+    private static final String FLUX = "reactor.core.publisher.Flux";
+    private static final String FUTURE = "java.util.concurrent.CompletableFuture";
+    private static final String RESPONSE_ENTITY = "org.springframework.http.ResponseEntity";
+    private static final String VOID = "java.lang.Void";
+    private static final String OPTIONAL = "java.util.Optional";
+    private static final String MAP = "java.util.Map";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        for (final Element element : roundEnv.getElementsAnnotatedWith(GeneratedClient.class)) {
+            try {
+                final ClientModel model = model(element);
+                final Set<GeneratedClient.Engine> engines = EnumSet.noneOf(GeneratedClient.Engine.class);
+                engines.addAll(List.of(element.getAnnotation(GeneratedClient.class).engines()));
+
+                for (final GeneratedClient.Engine engine : engines) {
+                    final ClientWriter writer = ClientWriter.of(engine, model);
+                    try (final Writer out = processingEnv.getFiler()
+                                                         .createSourceFile(model.qualified(writer.simpleName()), element)
+                                                         .openWriter()) {
+                        out.write(writer.write());
+                    }
+                }
+            } catch (InvalidClientException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, e.getMessage(), e.element);
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Could not write client: " + e, element);
+            }
+        }
+
+        return true;
+    }
+
+    private ClientModel model(final Element element) {
+        if (element.getKind() != ElementKind.INTERFACE) {
+            throw new InvalidClientException("@GeneratedClient is only supported on interfaces", element);
+        }
+
+        final TypeElement type = (TypeElement) element;
+        if (!type.getTypeParameters().isEmpty()) {
+            throw new InvalidClientException("@GeneratedClient interfaces must not be generic", type);
+        }
+
+        final StringBuilder flatName = new StringBuilder(type.getSimpleName());
+        Element enclosing = type;
+        while (enclosing.getKind() != ElementKind.PACKAGE) {
+            if (enclosing.getModifiers().contains(Modifier.PRIVATE)) {
+                throw new InvalidClientException("@GeneratedClient interfaces and their enclosing types must not be private", type);
+            }
+            enclosing = enclosing.getEnclosingElement();
+            if (enclosing.getKind() != ElementKind.PACKAGE) {
+                flatName.insert(0, enclosing.getSimpleName() + "_");
+            }
+        }
+
+        final HttpExchange typeExchange = type.getAnnotation(HttpExchange.class);
+        final List<ExchangeMethod> methods = new ArrayList<>();
+        for (final ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+            if (method.getEnclosingElement().getKind() != ElementKind.INTERFACE
+                || !method.getModifiers().contains(Modifier.ABSTRACT)) {
+                continue;
+            }
+            methods.add(method(method, typeExchange));
+        }
+
+        return new ClientModel(((PackageElement) enclosing).getQualifiedName().toString(),
+                               type.getQualifiedName().toString(),
+                               flatName.toString(),
+                               List.copyOf(methods));
+    }
+
+    private ExchangeMethod method(final ExecutableElement method, final HttpExchange typeExchange) {
+        if (!method.getTypeParameters().isEmpty()) {
+            throw new InvalidClientException("Generic methods are not supported", method);
+        }
+
+        final Exchange exchange = Exchange.of(method);
+        if (exchange == null) {
+            throw new InvalidClientException("Method has no @HttpExchange, @GetExchange, @PostExchange, @PutExchange, "
+                                             + "@PatchExchange or @DeleteExchange annotation", method);
+        }
+
+        final String httpMethod = exchange.method().isEmpty() && typeExchange != null ? typeExchange.method() : exchange.method();
+        if (httpMethod.isEmpty()) {
+            throw new InvalidClientException("No HTTP method declared", method);
+        }
+
+        final List<ExchangeMethod.Parameter> parameters = new ArrayList<>();
+        for (final VariableElement parameter : method.getParameters()) {
+            parameters.add(parameter(parameter));
+        }
+        if (parameters.stream().filter(parameter -> parameter.kind() == ExchangeMethod.Kind.BODY).count() > 1) {
+            throw new InvalidClientException("At most one @RequestBody parameter is supported", method);
+        }
+
+        final List<ExchangeMethod.UriPart> uri = uri(combine(typeExchange == null ? "" : alias(typeExchange.value(), typeExchange.url()),
+                                                             exchange.url()),
+                                                     parameters,
+                                                     method);
+
+        final String contentType = first(exchange.contentType(), typeExchange == null ? "" : typeExchange.contentType());
+        final String[] accept = exchange.accept().length == 0 && typeExchange != null ? typeExchange.accept() : exchange.accept();
+        formData(contentType, parameters, method);
+
+        TypeMirror result = method.getReturnType();
+        ExchangeMethod.Wrapper wrapper = ExchangeMethod.Wrapper.NONE;
+        if (is(result, MONO)) {
+            wrapper = ExchangeMethod.Wrapper.MONO;
+            result = typeArgument(result, method);
+        } else if (is(result, FUTURE)) {
+            wrapper = ExchangeMethod.Wrapper.FUTURE;
+            result = typeArgument(result, method);
+        }
+
+        final ExchangeMethod.Result kind;
+        final TypeMirror bodyType;
+        if (result.getKind() == TypeKind.VOID || is(result, VOID)) {
+            kind = ExchangeMethod.Result.NONE;
+            bodyType = null;
+        } else if (is(result, RESPONSE_ENTITY)) {
+            kind = ExchangeMethod.Result.ENTITY;
+            final TypeMirror entityBody = typeArgument(result, method);
+            bodyType = is(entityBody, VOID) ? null : entityBody;
+        } else if (is(result, FLUX) || is(result, MONO) || is(result, FUTURE)) {
+            throw new InvalidClientException("Unsupported return type " + method.getReturnType(), method);
+        } else {
+            kind = ExchangeMethod.Result.BODY;
+            bodyType = result;
+        }
+
+        return new ExchangeMethod(method.getSimpleName().toString(),
+                                  method.getReturnType().toString(),
+                                  method.getThrownTypes().stream().map(TypeMirror::toString).toList(),
+                                  wrapper,
+                                  kind,
+                                  bodyType == null ? null : boxed(bodyType).toString(),
+                                  httpMethod.toUpperCase(),
+                                  uri,
+                                  contentType,
+                                  accept.length == 0 ? null : String.join(", ", accept),
+                                  List.copyOf(parameters));
+    }
+
+    private ExchangeMethod.Parameter parameter(final VariableElement parameter) {
+        final String name = parameter.getSimpleName().toString();
+        final String type = parameter.asType().toString();
+        final boolean primitive = parameter.asType().getKind().isPrimitive();
+
+        if (is(parameter.asType(), OPTIONAL)) {
+            throw new InvalidClientException("Optional parameters are not supported", parameter);
+        }
+
+        final PathVariable path = parameter.getAnnotation(PathVariable.class);
+        if (path != null) {
+            namedValue(parameter, "@PathVariable", path.required(), ValueConstants.DEFAULT_NONE);
+            return new ExchangeMethod.Parameter(name, type, primitive, ExchangeMethod.Kind.PATH, first(alias(path.value(), path.name()), name));
+        }
+        final RequestParam query = parameter.getAnnotation(RequestParam.class);
+        if (query != null) {
+            namedValue(parameter, "@RequestParam", query.required(), query.defaultValue());
+            return new ExchangeMethod.Parameter(name, type, primitive, ExchangeMethod.Kind.QUERY, first(alias(query.value(), query.name()), name));
+        }
+        final RequestHeader header = parameter.getAnnotation(RequestHeader.class);
+        if (header != null) {
+            namedValue(parameter, "@RequestHeader", header.required(), header.defaultValue());
+            return new ExchangeMethod.Parameter(name, type, primitive, ExchangeMethod.Kind.HEADER, first(alias(header.value(), header.name()), name));
+        }
+        final RequestBody body = parameter.getAnnotation(RequestBody.class);
+        if (body != null) {
+            if (!body.required()) {
+                throw new InvalidClientException("@RequestBody(required = false) is not supported", parameter);
+            }
+            return new ExchangeMethod.Parameter(name, type, primitive, ExchangeMethod.Kind.BODY, name);
+        }
+
+        throw new InvalidClientException("Parameters must be annotated with @PathVariable, @RequestParam, @RequestHeader "
+                                         + "or @RequestBody", parameter);
+    }
+
+    /**
+     * Rejects {@code @RequestParam} on requests that are, or may be, {@code application/x-www-form-urlencoded}: the
+     * proxy sends the parameters as the form body then, while the generated code always appends them to the URI.
+     */
+    private static void formData(final String contentType,
+                                 final List<ExchangeMethod.Parameter> parameters,
+                                 final ExecutableElement method) {
+        if (parameters.stream().noneMatch(parameter -> parameter.kind() == ExchangeMethod.Kind.QUERY)) {
+            return;
+        }
+        if (parameters.stream().anyMatch(parameter -> parameter.kind() == ExchangeMethod.Kind.HEADER
+                                                      && "Content-Type".equalsIgnoreCase(parameter.key()))) {
+            throw new InvalidClientException("@RequestParam together with a Content-Type @RequestHeader is not supported", method);
+        }
+        if (contentType == null) {
+            return;
+        }
+
+        final MediaType mediaType;
+        try {
+            mediaType = MediaType.parseMediaType(contentType);
+        } catch (InvalidMediaTypeException e) {
+            throw new InvalidClientException("Invalid content type '" + contentType + "'", method);
+        }
+        if (MediaType.APPLICATION_FORM_URLENCODED.equals(mediaType)) {
+            throw new InvalidClientException("@RequestParam on form-encoded requests is not supported", method);
+        }
+    }
+
+    /**
+     * Rejects the named-value shapes the generated code does not expand the way the proxy's argument resolvers do:
+     * {@code Map}/{@code MultiValueMap} arguments (one entry per key), optional values and default values.
+     */
+    private void namedValue(final VariableElement parameter,
+                            final String annotation,
+                            final boolean required,
+                            final String defaultValue) {
+        final TypeMirror map = processingEnv.getTypeUtils().erasure(processingEnv.getElementUtils().getTypeElement(MAP).asType());
+        if (processingEnv.getTypeUtils().isAssignable(processingEnv.getTypeUtils().erasure(parameter.asType()), map)) {
+            throw new InvalidClientException(annotation + " Map and MultiValueMap parameters are not supported", parameter);
+        }
+        if (!required) {
+            throw new InvalidClientException(annotation + "(required = false) is not supported", parameter);
+        }
+        if (!ValueConstants.DEFAULT_NONE.equals(defaultValue)) {
+            throw new InvalidClientException(annotation + "(defaultValue) is not supported", parameter);
+        }
+    }
+
+    /**
+     * Splits the template into literals and path variables ({@code {name}} or {@code {name:regex}}) and checks that
+     * every variable has exactly one {@code @PathVariable} and vice versa.
+     */
+    private static List<ExchangeMethod.UriPart> uri(final String template,
+                                                    final List<ExchangeMethod.Parameter> parameters,
+                                                    final Element element) {
+        final List<ExchangeMethod.UriPart> parts = new ArrayList<>();
+        final Set<String> used = new HashSet<>();
+        final boolean absolute = template.matches("(?i)^https?://.*");
+        final String path = absolute || template.isEmpty() || template.startsWith("/") || template.startsWith("?")
+                            ? template
+                            : "/" + template;
+
+        int position = 0;
+        while (position < path.length()) {
+            final int open = path.indexOf('{', position);
+            if (open < 0) {
+                parts.add(new ExchangeMethod.UriPart(path.substring(position), false));
+                break;
+            }
+            if (open > position) {
+                parts.add(new ExchangeMethod.UriPart(path.substring(position, open), false));
+            }
+
+            int depth = 0;
+            int close = open;
+            for (; close < path.length(); close++) {
+                if (path.charAt(close) == '{') {
+                    depth++;
+                } else if (path.charAt(close) == '}' && --depth == 0) {
+                    break;
+                }
+            }
+            if (close == path.length()) {
+                throw new InvalidClientException("Unclosed '{' in URI template " + template, element);
+            }
+
+            final String variable = path.substring(open + 1, close).split(":", 2)[0].trim();
+            final ExchangeMethod.Parameter parameter = parameters.stream()
+                                                                 .filter(candidate -> candidate.kind() == ExchangeMethod.Kind.PATH)
+                                                                 .filter(candidate -> candidate.key().equals(variable))
+                                                                 .findFirst()
+                                                                 .orElseThrow(() -> new InvalidClientException(
+                                                                         "No @PathVariable for {" + variable + "}", element));
+            used.add(parameter.name());
+            parts.add(new ExchangeMethod.UriPart(parameter.name(), true));
+            position = close + 1;
+        }
+
+        for (final ExchangeMethod.Parameter parameter : parameters) {
+            if (parameter.kind() == ExchangeMethod.Kind.PATH && !used.contains(parameter.name())) {
+                throw new InvalidClientException("@PathVariable " + parameter.key() + " is not used in URI template "
+                                                 + template, element);
+            }
+        }
+
+        return List.copyOf(parts);
+    }
+
+    /**
+     * Joins the type and method URLs the way {@code HttpServiceMethod} does.
+     */
+    private static String combine(final String typeUrl, final String methodUrl) {
+        if (typeUrl.isEmpty()) {
+            return methodUrl;
+        }
+        if (methodUrl.isEmpty()) {
+            return typeUrl;
+        }
+
+        return typeUrl + (!typeUrl.endsWith("/") && !methodUrl.startsWith("/") ? "/" : "") + methodUrl;
+    }
+
+    private TypeMirror typeArgument(final TypeMirror type, final Element element) {
+        final List<? extends TypeMirror> arguments = ((DeclaredType) type).getTypeArguments();
+        if (arguments.size() != 1 || arguments.get(0).getKind() == TypeKind.WILDCARD) {
+            throw new InvalidClientException("Return type " + type + " needs a concrete type argument", element);
+        }
+
+        return arguments.get(0);
+    }
+
+    private TypeMirror boxed(final TypeMirror type) {
+        return type.getKind().isPrimitive()
+               ? processingEnv.getTypeUtils().boxedClass(processingEnv.getTypeUtils().getPrimitiveType(type.getKind())).asType()
+               : type;
+    }
+
+    private static boolean is(final TypeMirror type, final String qualifiedName) {
+        return type.getKind() == TypeKind.DECLARED
+               && ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().contentEquals(qualifiedName);
+    }
+
+    private static String alias(final String value, final String alias) {
+        return value.isEmpty() ? alias : value;
+    }
+
+    private static String first(final String value, final String fallback) {
+        if (!value.isEmpty()) {
+            return value;
+        }
+
+        return fallback.isEmpty() ? null : fallback;
+    }
+
+    /**
+     * The attributes shared by the {@code @HttpExchange} shortcuts; annotation proxies don't resolve
+     * {@code @AliasFor}, so {@code value} and {@code url} are merged here.
+     */
+    private record Exchange(String method, String url, String contentType, String[] accept) {
+
+        static Exchange of(final ExecutableElement method) {
+            final HttpExchange http = method.getAnnotation(HttpExchange.class);
+            if (http != null) {
+                return new Exchange(http.method(), alias(http.value(), http.url()), http.contentType(), http.accept());
+            }
+            final GetExchange get = method.getAnnotation(GetExchange.class);
+            if (get != null) {
+                return new Exchange("GET", alias(get.value(), get.url()), "", get.accept());
+            }
+            final PostExchange post = method.getAnnotation(PostExchange.class);
+            if (post != null) {
+                return new Exchange("POST", alias(post.value(), post.url()), post.contentType(), post.accept());
+            }
+            final PutExchange put = method.getAnnotation(PutExchange.class);
+            if (put != null) {
+                return new Exchange("PUT", alias(put.value(), put.url()), put.contentType(), put.accept());
+            }
+            final PatchExchange patch = method.getAnnotation(PatchExchange.class);
+            if (patch != null) {
+                return new Exchange("PATCH", alias(patch.value(), patch.url()), patch.contentType(), patch.accept());
+            }
+            final DeleteExchange delete = method.getAnnotation(DeleteExchange.class);
+            if (delete != null) {
+                return new Exchange("DELETE", alias(delete.value(), delete.url()), delete.contentType(), delete.accept());
+            }
+
+            return null;
+        }
+    }
+
+    private static final class InvalidClientException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient Element element;
+
+        private InvalidClientException(final String message, final Element element) {
+            super(message);
+            this.element = element;
+        }
+    }
+}
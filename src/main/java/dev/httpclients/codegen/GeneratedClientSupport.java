@@ -0,0 +1,359 @@
+package dev.httpclients.codegen;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.codec.EncodingException;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.UnknownHttpStatusCodeException;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runtime helpers called by classes generated by {@link GeneratedClientProcessor}. Not meant to be used directly.
+ * <p>
+ * Error handling follows {@code RestClient}: 4xx and 5xx responses of the JDK engine surface as
+ * {@link HttpClientErrorException}/{@link HttpServerErrorException}, I/O failures of blocking calls as
+ * {@link ResourceAccessException}.
+ */
+public final class GeneratedClientSupport {
+
+    public static final HttpResponse.BodyHandler<byte[]> BYTES = HttpResponse.BodyHandlers.ofByteArray();
+
+    private static final String TEXT_PLAIN_UTF8 = "text/plain;charset=UTF-8";
+    private static final String FORM_UTF8 = MediaType.APPLICATION_FORM_URLENCODED_VALUE + ";charset=UTF-8";
+
+    private GeneratedClientSupport() {
+    }
+
+    public static String baseUrl(final String baseUrl) {
+        if (baseUrl == null) {
+            return "";
+        }
+
+        return baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    }
+
+    public static String pathSegment(final Object value, final String name) {
+        if (value == null) {
+            throw new IllegalArgumentException("Missing path variable '" + name + "'");
+        }
+
+        return UriUtils.encode(value.toString(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Appends {@code name=value} for every value ({@link Iterable}s and arrays expand to repeated parameters);
+     * {@code null} elements are skipped, a {@code null} argument fails like a missing required parameter.
+     */
+    public static void appendQuery(final StringBuilder uri, final String name, final Object value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Missing request parameter '" + name + "'");
+        }
+        for (final Object item : values(value)) {
+            if (item == null) {
+                continue;
+            }
+            uri.append(uri.indexOf("?") < 0 ? '?' : '&')
+               .append(UriUtils.encode(name, StandardCharsets.UTF_8))
+               .append('=')
+               .append(UriUtils.encode(item.toString(), StandardCharsets.UTF_8));
+        }
+    }
+
+    public static void header(final HttpRequest.Builder request, final String name, final Object value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Missing request header '" + name + "'");
+        }
+        for (final Object item : values(value)) {
+            if (item != null) {
+                request.header(name, item.toString());
+            }
+        }
+    }
+
+    public static void header(final WebClient.RequestHeadersSpec<?> request, final String name, final Object value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Missing request header '" + name + "'");
+        }
+        for (final Object item : values(value)) {
+            if (item != null) {
+                request.header(name, item.toString());
+            }
+        }
+    }
+
+    /**
+     * Sets the method and body of a JDK request. Without an explicit content type, strings go out as text, byte
+     * arrays as octet streams, {@link MultiValueMap}s as multipart (or form-encoded when all values are strings) and
+     * everything else as JSON, mirroring what WebClient's default codecs pick for {@code bodyValue}.
+     */
+    public static void body(final HttpRequest.Builder request,
+                            final String method,
+                            final String contentType,
+                            final Object body,
+                            final ObjectMapper mapper) {
+        if (body == null) {
+            request.method(method, HttpRequest.BodyPublishers.noBody());
+            return;
+        }
+
+        final String type;
+        final HttpRequest.BodyPublisher publisher;
+        if (body instanceof MultiValueMap<?, ?> parts) {
+            final boolean form = contentType == null
+                                 ? parts.values().stream().flatMap(List::stream).allMatch(String.class::isInstance)
+                                 : MediaType.APPLICATION_FORM_URLENCODED.isCompatibleWith(MediaType.parseMediaType(contentType));
+            if (form) {
+                type = contentType == null ? FORM_UTF8 : contentType;
+                publisher = HttpRequest.BodyPublishers.ofString(form(parts));
+            } else {
+                final String boundary = new String(MimeTypeUtils.generateMultipartBoundary(), StandardCharsets.US_ASCII);
+                type = (contentType == null ? MediaType.MULTIPART_FORM_DATA_VALUE : contentType) + ";boundary=" + boundary;
+                publisher = multipart(parts, boundary, mapper);
+            }
+        } else {
+            type = contentType == null ? defaultContentType(body) : contentType;
+            publisher = publisher(body, type, mapper);
+        }
+
+        request.header(HttpHeaders.CONTENT_TYPE, type)
+               .method(method, publisher);
+    }
+
+    public static HttpResponse<byte[]> send(final HttpClient client, final HttpRequest request) {
+        try {
+            return client.send(request, BYTES);
+        } catch (IOException e) {
+            throw new ResourceAccessException("I/O error on " + request.method() + " request for \"" + request.uri()
+                                              + "\": " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResourceAccessException("Interrupted during " + request.method() + " request for \""
+                                              + request.uri() + "\"", new InterruptedIOException(e.getMessage()));
+        }
+    }
+
+    /**
+     * Decodes the body as {@code type}; {@code null} for an empty body.
+     */
+    public static <T> T decode(final HttpResponse<byte[]> response, final JavaType type, final ObjectMapper mapper) {
+        return read(checkStatus(response), type, mapper);
+    }
+
+    public static <T> ResponseEntity<T> toEntity(final HttpResponse<byte[]> response,
+                                                 final JavaType type,
+                                                 final ObjectMapper mapper) {
+        final T body = read(checkStatus(response), type, mapper);
+
+        return new ResponseEntity<>(body, headers(response), HttpStatusCode.valueOf(response.statusCode()));
+    }
+
+    public static Void discard(final HttpResponse<byte[]> response) {
+        checkStatus(response);
+
+        return null;
+    }
+
+    private static HttpResponse<byte[]> checkStatus(final HttpResponse<byte[]> response) {
+        final HttpStatusCode status = HttpStatusCode.valueOf(response.statusCode());
+        if (!status.isError()) {
+            return response;
+        }
+
+        final HttpStatus known = HttpStatus.resolve(status.value());
+        final String reason = known == null ? "" : known.getReasonPhrase();
+        final HttpHeaders headers = headers(response);
+        final Charset charset = charset(response, null);
+        if (status.is4xxClientError()) {
+            throw HttpClientErrorException.create(status, reason, headers, response.body(), charset);
+        }
+        if (status.is5xxServerError()) {
+            throw HttpServerErrorException.create(status, reason, headers, response.body(), charset);
+        }
+        throw new UnknownHttpStatusCodeException(status.value(), reason, headers, response.body(), charset);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T read(final HttpResponse<byte[]> response, final JavaType type, final ObjectMapper mapper) {
+        final byte[] body = response.body();
+        if (type == null || body == null || body.length == 0) {
+            return null;
+        }
+
+        final Class<?> raw = type.getRawClass();
+        if (raw == byte[].class) {
+            return (T) body;
+        }
+        if (raw == String.class) {
+            return (T) new String(body, charset(response, StandardCharsets.UTF_8));
+        }
+
+        try {
+            return mapper.readValue(body, type);
+        } catch (IOException e) {
+            throw new DecodingException("Could not decode response body of " + response.request().uri() + " as " + type, e);
+        }
+    }
+
+    private static HttpHeaders headers(final HttpResponse<?> response) {
+        final HttpHeaders headers = new HttpHeaders();
+        response.headers().map().forEach(headers::addAll);
+
+        return headers;
+    }
+
+    private static Charset charset(final HttpResponse<?> response, final Charset defaultCharset) {
+        return response.headers()
+                       .firstValue(HttpHeaders.CONTENT_TYPE)
+                       .map(MediaType::parseMediaType)
+                       .map(MediaType::getCharset)
+                       .orElse(defaultCharset);
+    }
+
+    private static String defaultContentType(final Object body) {
+        if (body instanceof String) {
+            return TEXT_PLAIN_UTF8;
+        }
+        if (body instanceof byte[] || body instanceof Resource) {
+            return MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        }
+
+        return MediaType.APPLICATION_JSON_VALUE;
+    }
+
+    private static HttpRequest.BodyPublisher publisher(final Object body, final String contentType, final ObjectMapper mapper) {
+        if (body instanceof String text) {
+            final Charset charset = MediaType.parseMediaType(contentType).getCharset();
+            return HttpRequest.BodyPublishers.ofString(text, charset == null ? StandardCharsets.UTF_8 : charset);
+        }
+        if (body instanceof byte[] bytes) {
+            return HttpRequest.BodyPublishers.ofByteArray(bytes);
+        }
+        if (body instanceof Resource resource) {
+            return resource(resource);
+        }
+
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body));
+        } catch (JsonProcessingException e) {
+            throw new EncodingException("Could not encode request body of type " + body.getClass().getName(), e);
+        }
+    }
+
+    private static HttpRequest.BodyPublisher resource(final Resource resource) {
+        if (resource.isFile()) {
+            try {
+                return HttpRequest.BodyPublishers.ofFile(resource.getFile().toPath());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        return HttpRequest.BodyPublishers.ofInputStream(() -> {
+            try {
+                return resource.getInputStream();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static String form(final MultiValueMap<?, ?> parts) {
+        final StringBuilder form = new StringBuilder();
+        for (final Map.Entry<?, ? extends List<?>> part : parts.entrySet()) {
+            for (final Object value : part.getValue()) {
+                if (!form.isEmpty()) {
+                    form.append('&');
+                }
+                form.append(UriUtils.encode(part.getKey().toString(), StandardCharsets.UTF_8))
+                    .append('=')
+                    .append(UriUtils.encode(String.valueOf(value), StandardCharsets.UTF_8));
+            }
+        }
+
+        return form.toString();
+    }
+
+    private static HttpRequest.BodyPublisher multipart(final MultiValueMap<?, ?> parts,
+                                                       final String boundary,
+                                                       final ObjectMapper mapper) {
+        final List<HttpRequest.BodyPublisher> publishers = new ArrayList<>();
+        for (final Map.Entry<?, ? extends List<?>> part : parts.entrySet()) {
+            for (final Object value : part.getValue()) {
+                final HttpHeaders headers = new HttpHeaders();
+                Object content = value;
+                if (value instanceof HttpEntity<?> entity) {
+                    headers.putAll(entity.getHeaders());
+                    content = entity.getBody();
+                }
+                if (headers.getContentType() == null && content != null) {
+                    headers.set(HttpHeaders.CONTENT_TYPE, defaultContentType(content));
+                }
+
+                final StringBuilder head = new StringBuilder("--").append(boundary)
+                                                                  .append("\r\nContent-Disposition: form-data; name=\"")
+                                                                  .append(part.getKey())
+                                                                  .append('"');
+                if (content instanceof Resource resource && resource.getFilename() != null) {
+                    head.append("; filename=\"").append(resource.getFilename()).append('"');
+                }
+                head.append("\r\n");
+                headers.forEach((name, headerValues) -> {
+                    if (!HttpHeaders.CONTENT_DISPOSITION.equalsIgnoreCase(name)) {
+                        headerValues.forEach(headerValue -> head.append(name).append(": ").append(headerValue).append("\r\n"));
+                    }
+                });
+                head.append("\r\n");
+
+                publishers.add(HttpRequest.BodyPublishers.ofString(head.toString(), StandardCharsets.UTF_8));
+                if (content != null) {
+                    publishers.add(publisher(content, headers.getFirst(HttpHeaders.CONTENT_TYPE), mapper));
+                }
+                publishers.add(HttpRequest.BodyPublishers.ofString("\r\n"));
+            }
+        }
+        publishers.add(HttpRequest.BodyPublishers.ofString("--" + boundary + "--\r\n"));
+
+        return HttpRequest.BodyPublishers.concat(publishers.toArray(HttpRequest.BodyPublisher[]::new));
+    }
+
+    private static Iterable<?> values(final Object value) {
+        if (value == null) {
+            return List.of();
+        }
+        if (value instanceof Iterable<?> iterable) {
+            return iterable;
+        }
+        if (value instanceof Object[] array) {
+            return Arrays.asList(array);
+        }
+
+        return List.of(value);
+    }
+}
@@ -0,0 +1,97 @@
+package dev.httpclients.codegen;
+
+import java.util.List;
+
+/**
+ * Writes {@code Jdk_<Interface>}: requests are built with {@code HttpRequest.Builder}, responses are read as byte
+ * arrays and decoded with Jackson against {@code JavaType}s resolved once in the constructor.
+ */
+final class JdkClientWriter extends ClientWriter {
+
+    JdkClientWriter(final ClientModel model) {
+        super(model);
+    }
+
+    @Override
+    String prefix() {
+        return "Jdk";
+    }
+
+    @Override
+    List<String> imports() {
+        return List.of("com.fasterxml.jackson.core.type.TypeReference",
+                       "com.fasterxml.jackson.databind.JavaType",
+                       "com.fasterxml.jackson.databind.ObjectMapper",
+                       GeneratedClientSupport.class.getName(),
+                       "java.net.URI",
+                       "java.net.http.HttpClient",
+                       "java.net.http.HttpRequest");
+    }
+
+    @Override
+    void members() {
+        line(1, "private final HttpClient httpClient;");
+        line(1, "private final String baseUrl;");
+        line(1, "private final ObjectMapper objectMapper;");
+        for (int i = 0; i < bodyTypes.size(); i++) {
+            line(1, "private final JavaType type" + i + ";");
+        }
+        line(0, "");
+        line(1, "public " + simpleName() + "(final HttpClient httpClient, final String baseUrl, final ObjectMapper objectMapper) {");
+        line(2, "this.httpClient = httpClient;");
+        line(2, "this.baseUrl = GeneratedClientSupport.baseUrl(baseUrl);");
+        line(2, "this.objectMapper = objectMapper;");
+        for (int i = 0; i < bodyTypes.size(); i++) {
+            line(2, "this.type" + i + " = objectMapper.getTypeFactory().constructType(new TypeReference<"
+                    + bodyTypes.get(i) + ">() {});");
+        }
+        line(1, "}");
+    }
+
+    @Override
+    void call(final int index, final ExchangeMethod method) {
+        final String request = "request" + index + "(" + arguments(method) + ")";
+        final String type = method.bodyType() == null ? "null" : "type" + typeIndex(method.bodyType());
+        final String typeArgument = method.bodyType() == null ? "java.lang.Void" : method.bodyType();
+        final String handler = switch (method.result()) {
+            case BODY -> "GeneratedClientSupport.<" + typeArgument + ">decode(%s, " + type + ", objectMapper)";
+            case ENTITY -> "GeneratedClientSupport.<" + typeArgument + ">toEntity(%s, " + type + ", objectMapper)";
+            case NONE -> "GeneratedClientSupport.discard(%s)";
+        };
+
+        switch (method.wrapper()) {
+            case MONO -> {
+                line(2, "return reactor.core.publisher.Mono.fromFuture(() -> httpClient.sendAsync(" + request
+                        + ", GeneratedClientSupport.BYTES)");
+                line(2, "        .thenApply(_response -> " + handler.formatted("_response") + "));");
+            }
+            case FUTURE -> {
+                line(2, "return httpClient.sendAsync(" + request + ", GeneratedClientSupport.BYTES)");
+                line(2, "        .thenApply(_response -> " + handler.formatted("_response") + ");");
+            }
+            case NONE -> line(2, ("void".equals(method.returnType()) ? "" : "return ")
+                                 + handler.formatted("GeneratedClientSupport.send(httpClient, " + request + ")") + ";");
+        }
+    }
+
+    @Override
+    void request(final int index, final ExchangeMethod method) {
+        line(1, "private HttpRequest request" + index + "(" + parameters(method) + ") {");
+        uri(method);
+        line(2, "final HttpRequest.Builder _request = HttpRequest.newBuilder(URI.create(_uri.toString()));");
+        headers(method);
+
+        final ExchangeMethod.Parameter body = method.body();
+        if (body == null) {
+            if (method.contentType() != null) {
+                line(2, "_request.header(\"Content-Type\", " + literal(method.contentType()) + ");");
+            }
+            line(2, "_request.method(" + literal(method.httpMethod()) + ", HttpRequest.BodyPublishers.noBody());");
+        } else {
+            line(2, "GeneratedClientSupport.body(_request, " + literal(method.httpMethod()) + ", "
+                    + literal(method.contentType()) + ", " + body.name() + ", objectMapper);");
+        }
+        line(2, "return _request.build();");
+        line(1, "}");
+    }
+}
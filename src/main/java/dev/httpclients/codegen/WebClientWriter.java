@@ -0,0 +1,99 @@
+package dev.httpclients.codegen;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Writes {@code WebClient_<Interface>}: the expanded URI is passed to {@code uri(URI)} so WebClient's template
+ * handling is skipped, and type references and media types are static constants.
+ */
+final class WebClientWriter extends ClientWriter {
+
+    private static final Set<String> STANDARD_METHODS = Set.of("GET", "HEAD", "POST", "PUT", "PATCH", "DELETE", "OPTIONS", "TRACE");
+
+    WebClientWriter(final ClientModel model) {
+        super(model);
+    }
+
+    @Override
+    String prefix() {
+        return "WebClient";
+    }
+
+    @Override
+    List<String> imports() {
+        return List.of(GeneratedClientSupport.class.getName(),
+                       "org.springframework.core.ParameterizedTypeReference",
+                       "org.springframework.http.HttpMethod",
+                       "org.springframework.http.MediaType",
+                       "org.springframework.web.reactive.function.client.WebClient",
+                       "java.net.URI");
+    }
+
+    @Override
+    void members() {
+        for (int i = 0; i < bodyTypes.size(); i++) {
+            line(1, "private static final ParameterizedTypeReference<" + bodyTypes.get(i) + "> TYPE_" + i
+                    + " = new ParameterizedTypeReference<" + bodyTypes.get(i) + ">() {};");
+        }
+        for (int i = 0; i < model.methods().size(); i++) {
+            final String contentType = model.methods().get(i).contentType();
+            if (contentType != null) {
+                line(1, "private static final MediaType CONTENT_TYPE_" + i + " = MediaType.parseMediaType(" + literal(contentType) + ");");
+            }
+        }
+        line(0, "");
+        line(1, "private final WebClient webClient;");
+        line(1, "private final String baseUrl;");
+        line(0, "");
+        line(1, "public " + simpleName() + "(final WebClient webClient, final String baseUrl) {");
+        line(2, "this.webClient = webClient;");
+        line(2, "this.baseUrl = GeneratedClientSupport.baseUrl(baseUrl);");
+        line(1, "}");
+    }
+
+    @Override
+    void call(final int index, final ExchangeMethod method) {
+        final String retrieve = switch (method.result()) {
+            case BODY -> ".bodyToMono(TYPE_" + typeIndex(method.bodyType()) + ")";
+            case ENTITY -> method.bodyType() == null
+                           ? ".toBodilessEntity()"
+                           : ".toEntity(TYPE_" + typeIndex(method.bodyType()) + ")";
+            case NONE -> ".bodyToMono(Void.class)";
+        };
+        final String adapt = switch (method.wrapper()) {
+            case MONO -> "";
+            case FUTURE -> ".toFuture()";
+            case NONE -> ".block()";
+        };
+
+        line(2, ("void".equals(method.returnType()) ? "" : "return ") + "request" + index + "(" + arguments(method)
+                + ").retrieve()" + retrieve + adapt + ";");
+    }
+
+    @Override
+    void request(final int index, final ExchangeMethod method) {
+        final String httpMethod = STANDARD_METHODS.contains(method.httpMethod())
+                                  ? "HttpMethod." + method.httpMethod()
+                                  : "HttpMethod.valueOf(" + literal(method.httpMethod()) + ")";
+
+        line(1, "private WebClient.RequestHeadersSpec<?> request" + index + "(" + parameters(method) + ") {");
+        uri(method);
+        line(2, "final WebClient.RequestBodySpec _request = webClient.method(" + httpMethod
+                + ").uri(URI.create(_uri.toString()));");
+        headers(method);
+        if (method.contentType() != null) {
+            line(2, "_request.contentType(CONTENT_TYPE_" + index + ");");
+        }
+
+        // bodyValue is not specified to return the same spec, so its result is what gets returned
+        final ExchangeMethod.Parameter body = method.body();
+        if (body != null && !body.primitive()) {
+            line(2, "if (" + body.name() + " == null) {");
+            line(3, "return _request;");
+            line(2, "}");
+        }
+        line(2, body == null ? "return _request;" : "return _request.bodyValue(" + body.name() + ");");
+        line(1, "}");
+    }
+}
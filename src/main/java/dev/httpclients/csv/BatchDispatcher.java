@@ -0,0 +1,41 @@
+package dev.httpclients.csv;
+
+import reactor.core.publisher.Mono;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Sends one batch of rows. A batch is considered failed when the returned future completes exceptionally.
+ */
+@FunctionalInterface
+public interface BatchDispatcher {
+
+    CompletableFuture<?> dispatch(List<CsvRow> batch);
+
+    /**
+     * Dispatches through a JDK {@link HttpClient}; any non-2xx status fails the batch.
+     */
+    static BatchDispatcher javaHttpClient(final HttpClient client,
+                                          final Function<List<CsvRow>, HttpRequest> requestFactory) {
+        return batch -> client.sendAsync(requestFactory.apply(batch), HttpResponse.BodyHandlers.discarding())
+                              .thenApply(response -> {
+                                  if (response.statusCode() / 100 != 2) {
+                                      throw new IllegalStateException("Unexpected response status: " + response.statusCode());
+                                  }
+
+                                  return response;
+                              });
+    }
+
+    /**
+     * Dispatches through a WebClient call, e.g. {@code batch -> wc.post().bodyValue(batch).retrieve().toBodilessEntity()}.
+     */
+    static BatchDispatcher webClient(final Function<List<CsvRow>, Mono<?>> call) {
+        return batch -> call.apply(batch).toFuture();
+    }
+}
@@ -0,0 +1,19 @@
+package dev.httpclients.csv;
+
+import java.util.List;
+
+/**
+ * Outcome of a dispatched batch. {@code error} is {@code null} for successful batches.
+ */
+public record BatchResult(
+        int segment,
+        int sequence,
+        List<CsvRow> rows,
+        long latencyNanos,
+        Throwable error
+) {
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
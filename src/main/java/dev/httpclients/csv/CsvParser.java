@@ -0,0 +1,101 @@
+package dev.httpclients.csv;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Byte-level CSV parser working directly on a (memory-mapped) {@link ByteBuffer}.
+ * <p>
+ * Field bytes are unescaped into a reusable scratch array, so the only per-field allocation is the resulting
+ * {@link String}. Quoted fields with {@code ""} escapes are supported; quoted line breaks are not, because the file is
+ * split into segments at line boundaries.
+ */
+final class CsvParser {
+
+    private static final byte DELIMITER = ',';
+    private static final byte QUOTE = '"';
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+
+    private final Map<String, Integer> header;
+
+    private byte[] scratch = new byte[256];
+    private String[] fields = new String[16];
+
+    CsvParser(final Map<String, Integer> header) {
+        this.header = header;
+    }
+
+    /**
+     * Parses a single line and advances the buffer past its line terminator. Returns {@code null} for blank lines.
+     */
+    CsvRow parseRow(final ByteBuffer buffer) {
+        int count = 0;
+        int length = 0;
+        boolean quoted = false;
+        boolean blank = true;
+
+        while (buffer.hasRemaining()) {
+            final byte b = buffer.get();
+
+            if (quoted) {
+                if (b == QUOTE) {
+                    if (buffer.hasRemaining() && buffer.get(buffer.position()) == QUOTE) {
+                        buffer.get();
+                        length = append(length, b);
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    length = append(length, b);
+                }
+                continue;
+            }
+
+            if (b == LF) {
+                break;
+            }
+            if (b == CR) {
+                continue;
+            }
+
+            blank = false;
+            if (b == QUOTE) {
+                quoted = true;
+            } else if (b == DELIMITER) {
+                count = addField(count, length);
+                length = 0;
+            } else {
+                length = append(length, b);
+            }
+        }
+
+        if (blank) {
+            return null;
+        }
+
+        count = addField(count, length);
+
+        return new CsvRow(header, Arrays.copyOf(fields, count));
+    }
+
+    private int append(final int length, final byte b) {
+        if (length == scratch.length) {
+            scratch = Arrays.copyOf(scratch, length * 2);
+        }
+        scratch[length] = b;
+
+        return length + 1;
+    }
+
+    private int addField(final int count, final int length) {
+        if (count == fields.length) {
+            fields = Arrays.copyOf(fields, count * 2);
+        }
+        fields[count] = new String(scratch, 0, length, StandardCharsets.UTF_8);
+
+        return count + 1;
+    }
+}
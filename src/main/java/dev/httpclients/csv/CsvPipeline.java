@@ -0,0 +1,527 @@
+package dev.httpclients.csv;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Streams a CSV file into batched HTTP calls.
+ * <p>
+ * The file is memory-mapped and split at line boundaries into segments that are parsed in parallel. Each parser
+ * thread groups its rows into batches and hands them to the {@link BatchDispatcher}; a shared semaphore keeps at most
+ * {@code maxInFlight} batches outstanding, so parsing is throttled by the HTTP side rather than buffering the file in
+ * memory. Failed batches are appended to an optional dead-letter CSV that can be fed back into the pipeline.
+ * <p>
+ * In ordered mode each segment may additionally hold at most {@code maxInFlight} results that are waiting for earlier
+ * batches, so one slow early batch stalls its segment's parser instead of letting held-back results pile up.
+ */
+public final class CsvPipeline {
+
+    private static final long MAX_SEGMENT_SIZE = 1L << 30;
+    private static final int PROBE_SIZE = 8 * 1024;
+    private static final byte LF = '\n';
+
+    private final BatchDispatcher dispatcher;
+    private final int batchSize;
+    private final int maxInFlight;
+    private final int parallelism;
+    private final boolean header;
+    private final boolean ordered;
+    private final Path deadLetter;
+    private final Consumer<BatchResult> resultListener;
+
+    private CsvPipeline(final Builder builder) {
+        this.dispatcher = builder.dispatcher;
+        this.batchSize = builder.batchSize;
+        this.maxInFlight = builder.maxInFlight;
+        this.parallelism = builder.parallelism;
+        this.header = builder.header;
+        this.ordered = builder.ordered;
+        this.deadLetter = builder.deadLetter;
+        this.resultListener = builder.resultListener;
+    }
+
+    public static Builder builder(final BatchDispatcher dispatcher) {
+        return new Builder(dispatcher);
+    }
+
+    /**
+     * Processes the whole file and blocks until every batch has completed.
+     */
+    public PipelineReport run(final Path csv) throws IOException, InterruptedException {
+        final long start = System.nanoTime();
+
+        try (final FileChannel channel = FileChannel.open(csv, StandardOpenOption.READ);
+             final DeadLetterWriter deadLetterWriter = new DeadLetterWriter(deadLetter)) {
+            final long size = channel.size();
+
+            long dataStart = 0;
+            Map<String, Integer> columns = Map.of();
+            if (header && size > 0) {
+                final MappedByteBuffer first = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, MAX_SEGMENT_SIZE));
+                final CsvRow headerRow = new CsvParser(Map.of()).parseRow(first);
+                columns = headerRow == null ? Map.of() : columns(headerRow);
+                dataStart = first.position();
+                deadLetterWriter.header(headerRow);
+            }
+
+            final long[] bounds = segmentBounds(channel, dataStart, size);
+            final Run run = new Run(bounds.length - 1, deadLetterWriter);
+            final ExecutorService parsers = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, bounds.length - 1)));
+
+            try {
+                final List<Future<?>> segments = new ArrayList<>();
+                for (int i = 0; i < bounds.length - 1; i++) {
+                    final int segment = i;
+                    final Map<String, Integer> segmentColumns = columns;
+                    segments.add(parsers.submit(() -> {
+                        parseSegment(channel, bounds[segment], bounds[segment + 1], segment, segmentColumns, run);
+                        return null;
+                    }));
+                }
+
+                for (final Future<?> segment : segments) {
+                    segment.get();
+                }
+            } catch (ExecutionException e) {
+                parsers.shutdownNow();
+                run.awaitInFlight();
+
+                if (e.getCause() instanceof IOException io) {
+                    throw io;
+                }
+                throw new IllegalStateException("Failed to parse " + csv, e.getCause());
+            } finally {
+                parsers.shutdownNow();
+            }
+
+            run.awaitInFlight();
+            run.rethrowCallbackFailure();
+
+            return run.report(Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    private void parseSegment(final FileChannel channel,
+                              final long from,
+                              final long to,
+                              final int segment,
+                              final Map<String, Integer> columns,
+                              final Run run) throws IOException, InterruptedException {
+        final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        final CsvParser parser = new CsvParser(columns);
+
+        int sequence = 0;
+        List<CsvRow> batch = new ArrayList<>(batchSize);
+        while (buffer.hasRemaining()) {
+            final CsvRow row = parser.parseRow(buffer);
+            if (row == null) {
+                continue;
+            }
+
+            batch.add(row);
+            if (batch.size() == batchSize) {
+                run.dispatch(segment, sequence++, batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            run.dispatch(segment, sequence++, batch);
+        }
+
+        run.segmentParsed(segment, sequence);
+    }
+
+    /**
+     * Splits {@code [from, size)} into roughly equal segments, each ending right after a line feed.
+     */
+    private long[] segmentBounds(final FileChannel channel, final long from, final long size) throws IOException {
+        final long length = size - from;
+        final int count = (int) Math.max(1, Math.max(Math.min(parallelism, length / PROBE_SIZE),
+                                                     (length + MAX_SEGMENT_SIZE - 1) / MAX_SEGMENT_SIZE));
+
+        final long[] bounds = new long[count + 1];
+        bounds[0] = from;
+        bounds[count] = size;
+
+        final ByteBuffer probe = ByteBuffer.allocate(PROBE_SIZE);
+        int filled = 1;
+        for (int i = 1; i < count; i++) {
+            long position = Math.max(bounds[filled - 1], from + length * i / count);
+
+            while (position < size) {
+                probe.clear();
+                final int read = channel.read(probe, position);
+                if (read <= 0) {
+                    position = size;
+                    break;
+                }
+
+                int newLine = -1;
+                for (int j = 0; j < read; j++) {
+                    if (probe.get(j) == LF) {
+                        newLine = j;
+                        break;
+                    }
+                }
+
+                if (newLine >= 0) {
+                    position += newLine + 1;
+                    break;
+                }
+                position += read;
+            }
+
+            if (position < size && position > bounds[filled - 1]) {
+                bounds[filled++] = position;
+            }
+        }
+
+        bounds[filled] = size;
+
+        return Arrays.copyOf(bounds, filled + 1);
+    }
+
+    private static Map<String, Integer> columns(final CsvRow header) {
+        final Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i), i);
+        }
+
+        return Map.copyOf(columns);
+    }
+
+    /**
+     * Mutable state of a single {@link #run(Path)} invocation.
+     */
+    private final class Run {
+
+        private final Semaphore inFlight = new Semaphore(maxInFlight);
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder batches = new LongAdder();
+        private final LongAdder failedBatches = new LongAdder();
+        private final LatencyRecorder latencies = new LatencyRecorder();
+        private final DeadLetterWriter deadLetterWriter;
+
+        // ordered delivery: results are held back until all preceding batches have been delivered; each segment owns
+        // a window of maxInFlight undelivered results, released on delivery, which bounds the held-back results
+        private final int[] segmentBatches;
+        private final Semaphore[] windows;
+        private final TreeMap<Long, BatchResult> pending = new TreeMap<>();
+        private int nextSegment;
+        private int nextSequence;
+
+        private Throwable callbackFailure;
+
+        private Run(final int segments, final DeadLetterWriter deadLetterWriter) {
+            this.deadLetterWriter = deadLetterWriter;
+            this.segmentBatches = new int[segments];
+            Arrays.fill(segmentBatches, -1);
+            this.windows = new Semaphore[ordered ? segments : 0];
+            for (int i = 0; i < windows.length; i++) {
+                windows[i] = new Semaphore(maxInFlight);
+            }
+        }
+
+        private void dispatch(final int segment, final int sequence, final List<CsvRow> batch) throws InterruptedException {
+            final long formed = System.nanoTime();
+            if (ordered) {
+                windows[segment].acquire();
+            }
+            inFlight.acquire();
+
+            CompletableFuture<?> future;
+            try {
+                future = dispatcher.dispatch(batch);
+                if (future == null) {
+                    future = CompletableFuture.failedFuture(new IllegalStateException("Dispatcher returned no future"));
+                }
+            } catch (RuntimeException e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+
+            future.whenComplete((ignored, ex) -> {
+                try {
+                    complete(new BatchResult(segment, sequence, batch, System.nanoTime() - formed, unwrap(ex)));
+                } catch (RuntimeException e) {
+                    callbackFailed(e);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }
+
+        private void complete(final BatchResult result) {
+            rows.add(result.rows().size());
+            batches.increment();
+            latencies.record(result.latencyNanos());
+
+            if (!result.isSuccess()) {
+                failedBatches.increment();
+                try {
+                    deadLetterWriter.write(result.rows());
+                } catch (RuntimeException e) {
+                    callbackFailed(e);
+                }
+            }
+
+            if (!ordered) {
+                deliver(result);
+                return;
+            }
+
+            synchronized (this) {
+                pending.put(key(result.segment(), result.sequence()), result);
+                drain();
+            }
+        }
+
+        private synchronized void segmentParsed(final int segment, final int batchCount) {
+            segmentBatches[segment] = batchCount;
+            if (ordered) {
+                drain();
+            }
+        }
+
+        private void drain() {
+            while (nextSegment < segmentBatches.length) {
+                if (nextSequence == segmentBatches[nextSegment]) {
+                    nextSegment++;
+                    nextSequence = 0;
+                    continue;
+                }
+
+                final BatchResult result = pending.remove(key(nextSegment, nextSequence));
+                if (result == null) {
+                    return;
+                }
+
+                nextSequence++;
+                deliver(result);
+                windows[result.segment()].release();
+            }
+        }
+
+        private void deliver(final BatchResult result) {
+            try {
+                resultListener.accept(result);
+            } catch (RuntimeException e) {
+                callbackFailed(e);
+            }
+        }
+
+        private synchronized void callbackFailed(final RuntimeException e) {
+            if (callbackFailure == null) {
+                callbackFailure = e;
+            } else {
+                callbackFailure.addSuppressed(e);
+            }
+        }
+
+        /**
+         * Surfaces the first failure of the dead-letter writer or the result listener once all batches completed.
+         */
+        private synchronized void rethrowCallbackFailure() throws IOException {
+            if (callbackFailure == null) {
+                return;
+            }
+            if (callbackFailure instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw new IllegalStateException("Failed to handle batch result", callbackFailure);
+        }
+
+        private void awaitInFlight() throws InterruptedException {
+            inFlight.acquire(maxInFlight);
+            inFlight.release(maxInFlight);
+        }
+
+        private PipelineReport report(final Duration elapsed) {
+            return new PipelineReport(rows.sum(),
+                                      batches.sum(),
+                                      failedBatches.sum(),
+                                      elapsed,
+                                      Duration.ofNanos(latencies.percentile(0.50)),
+                                      Duration.ofNanos(latencies.percentile(0.99)),
+                                      Duration.ofNanos(latencies.percentile(1.0)));
+        }
+
+        private static long key(final int segment, final int sequence) {
+            return ((long) segment << 32) | sequence;
+        }
+
+        private static Throwable unwrap(final Throwable ex) {
+            return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        }
+    }
+
+    private static final class LatencyRecorder {
+
+        private long[] values = new long[1024];
+        private int size;
+
+        private synchronized void record(final long nanos) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nanos;
+        }
+
+        private synchronized long percentile(final double percentile) {
+            if (size == 0) {
+                return 0;
+            }
+
+            final long[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+
+            return sorted[(int) Math.min(size - 1, Math.ceil(percentile * size) - 1)];
+        }
+    }
+
+    private static final class DeadLetterWriter implements AutoCloseable {
+
+        private final Path file;
+        private BufferedWriter writer;
+        private CsvRow header;
+
+        private DeadLetterWriter(final Path file) {
+            this.file = file;
+        }
+
+        private void header(final CsvRow header) {
+            this.header = header;
+        }
+
+        private synchronized void write(final List<CsvRow> rows) {
+            if (file == null) {
+                return;
+            }
+
+            try {
+                if (writer == null) {
+                    writer = Files.newBufferedWriter(file);
+                    if (header != null) {
+                        writeRow(header);
+                    }
+                }
+
+                for (final CsvRow row : rows) {
+                    writeRow(row);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void writeRow(final CsvRow row) throws IOException {
+            for (int i = 0; i < row.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+
+                final String value = row.get(i);
+                if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                    writer.write('"');
+                    writer.write(value.replace("\"", "\"\""));
+                    writer.write('"');
+                } else {
+                    writer.write(value);
+                }
+            }
+            writer.write('\n');
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            if (writer != null) {
+                writer.close();
+            }
+        }
+    }
+
+    public static final class Builder {
+
+        private final BatchDispatcher dispatcher;
+        private int batchSize = 100;
+        private int maxInFlight = 16;
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        private boolean header = true;
+        private boolean ordered;
+        private Path deadLetter;
+        private Consumer<BatchResult> resultListener = result -> { };
+
+        private Builder(final BatchDispatcher dispatcher) {
+            this.dispatcher = dispatcher;
+        }
+
+        public Builder batchSize(final int batchSize) {
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        public Builder maxInFlight(final int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+
+        public Builder parallelism(final int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        public Builder header(final boolean header) {
+            this.header = header;
+            return this;
+        }
+
+        /**
+         * Delivers results to the listener in file order instead of completion order.
+         */
+        public Builder ordered(final boolean ordered) {
+            this.ordered = ordered;
+            return this;
+        }
+
+        public Builder deadLetter(final Path deadLetter) {
+            this.deadLetter = deadLetter;
+            return this;
+        }
+
+        public Builder resultListener(final Consumer<BatchResult> resultListener) {
+            this.resultListener = resultListener;
+            return this;
+        }
+
+        public CsvPipeline build() {
+            if (batchSize <= 0 || maxInFlight <= 0 || parallelism <= 0) {
+                throw new IllegalArgumentException("batchSize, maxInFlight and parallelism must be positive");
+            }
+
+            return new CsvPipeline(this);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package dev.httpclients.csv;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A parsed CSV row. Values can be looked up by index or, when the file has a header line, by column name.
+ */
+public final class CsvRow {
+
+    private final Map<String, Integer> header;
+    private final String[] values;
+
+    CsvRow(final Map<String, Integer> header, final String[] values) {
+        this.header = header;
+        this.values = values;
+    }
+
+    public String get(final int index) {
+        return values[index];
+    }
+
+    public String get(final String column) {
+        final Integer index = header.get(column);
+        if (index == null) {
+            throw new IllegalArgumentException("Unknown column: " + column);
+        }
+
+        return index < values.length ? values[index] : null;
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public List<String> values() {
+        return List.of(values);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(values);
+    }
+}
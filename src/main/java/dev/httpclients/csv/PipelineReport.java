@@ -0,0 +1,24 @@
+package dev.httpclients.csv;
+
+import java.time.Duration;
+
+/**
+ * Summary of a {@link CsvPipeline} run. Latencies are per batch, from the moment the batch was formed until its
+ * response completed, so they include time spent waiting for an in-flight slot.
+ */
+public record PipelineReport(
+        long rows,
+        long batches,
+        long failedBatches,
+        Duration elapsed,
+        Duration latencyP50,
+        Duration latencyP99,
+        Duration latencyMax
+) {
+
+    public double rowsPerSecond() {
+        final long nanos = elapsed.toNanos();
+
+        return nanos == 0 ? rows : rows * 1_000_000_000d / nanos;
+    }
+}
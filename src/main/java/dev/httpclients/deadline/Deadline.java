@@ -0,0 +1,70 @@
+package dev.httpclients.deadline;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Absolute point in time by which a logical request, including all of its retries, must be finished.
+ * <p>
+ * A deadline is created once per logical call and passed down unchanged; every stage derives its own timeout from
+ * {@link #remaining()} instead of carrying a separate, fixed budget.
+ */
+public final class Deadline {
+
+    /**
+     * Key under which a deadline is looked up in WebClient request attributes and in the Reactor context.
+     */
+    public static final String KEY = Deadline.class.getName();
+
+    private static final ScheduledThreadPoolExecutor TIMER = timer();
+
+    private final long deadlineNanos;
+
+    private Deadline(final long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    public static Deadline after(final Duration budget) {
+        return new Deadline(System.nanoTime() + budget.toNanos());
+    }
+
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0, deadlineNanos - System.nanoTime()));
+    }
+
+    public boolean isExpired() {
+        return deadlineNanos - System.nanoTime() <= 0;
+    }
+
+    public DeadlineExceededException exceeded() {
+        return new DeadlineExceededException("Deadline exceeded");
+    }
+
+    /**
+     * Runs the task once the deadline passes. The returned future should be cancelled when the guarded work completes,
+     * so that the timer does not keep references to finished exchanges.
+     */
+    ScheduledFuture<?> onExpiry(final Runnable task) {
+        return TIMER.schedule(task, Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return "Deadline[remaining=" + remaining() + "]";
+    }
+
+    private static ScheduledThreadPoolExecutor timer() {
+        final ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            final Thread thread = Executors.defaultThreadFactory().newThread(runnable);
+            thread.setName("deadline-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.setRemoveOnCancelPolicy(true);
+
+        return timer;
+    }
+}
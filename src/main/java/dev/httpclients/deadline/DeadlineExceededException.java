@@ -0,0 +1,13 @@
+package dev.httpclients.deadline;
+
+/**
+ * Signals that a logical request did not complete before its {@link Deadline}.
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public DeadlineExceededException(final String message) {
+        super(message);
+    }
+}
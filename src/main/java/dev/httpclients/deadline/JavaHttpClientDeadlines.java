@@ -0,0 +1,211 @@
+package dev.httpclients.deadline;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Deadline-bound sends on the JDK {@link HttpClient}.
+ * <p>
+ * Each attempt gets the remaining budget as its request timeout (covering connect and response headers), the body
+ * subscriber is cancelled once the deadline passes (covering body streaming, including {@code ofInputStream}), and the
+ * future returned by {@code sendAsync} is cancelled so the client aborts the exchange and closes the connection.
+ */
+public final class JavaHttpClientDeadlines {
+
+    private JavaHttpClientDeadlines() {
+    }
+
+    public static <T> CompletableFuture<HttpResponse<T>> sendAsync(final HttpClient client,
+                                                                   final HttpRequest request,
+                                                                   final HttpResponse.BodyHandler<T> handler,
+                                                                   final Deadline deadline) {
+        return sendAsync(client, request, handler, deadline, 1, Duration.ZERO, ex -> false);
+    }
+
+    /**
+     * Retries failed attempts matching {@code retryOn} with a fixed backoff, as long as attempts are left and the
+     * deadline still leaves room for the backoff.
+     */
+    public static <T> CompletableFuture<HttpResponse<T>> sendAsync(final HttpClient client,
+                                                                   final HttpRequest request,
+                                                                   final HttpResponse.BodyHandler<T> handler,
+                                                                   final Deadline deadline,
+                                                                   final int maxAttempts,
+                                                                   final Duration backoff,
+                                                                   final Predicate<Throwable> retryOn) {
+        return attempt(client, request, handler, deadline, 1, maxAttempts, backoff, retryOn);
+    }
+
+    public static <T> HttpResponse.BodyHandler<T> bodyHandler(final HttpResponse.BodyHandler<T> handler,
+                                                              final Deadline deadline) {
+        return responseInfo -> new DeadlineBodySubscriber<>(handler.apply(responseInfo), deadline);
+    }
+
+    private static <T> CompletableFuture<HttpResponse<T>> attempt(final HttpClient client,
+                                                                  final HttpRequest request,
+                                                                  final HttpResponse.BodyHandler<T> handler,
+                                                                  final Deadline deadline,
+                                                                  final int attempt,
+                                                                  final int maxAttempts,
+                                                                  final Duration backoff,
+                                                                  final Predicate<Throwable> retryOn) {
+        // read once: the deadline may pass between two reads, and a zero timeout is rejected by the request builder
+        final Duration remaining = deadline.remaining();
+        if (remaining.isZero()) {
+            return CompletableFuture.failedFuture(deadline.exceeded());
+        }
+
+        final HttpRequest bounded = HttpRequest.newBuilder(request, (name, value) -> true)
+                                               .timeout(remaining)
+                                               .build();
+        final CompletableFuture<HttpResponse<T>> future = client.sendAsync(bounded, bodyHandler(handler, deadline));
+        final ScheduledFuture<?> expiry = deadline.onExpiry(() -> future.cancel(true));
+
+        return future.handle((response, ex) -> {
+                         expiry.cancel(false);
+
+                         if (ex == null) {
+                             return CompletableFuture.completedFuture(response);
+                         }
+
+                         final Throwable cause = unwrap(ex);
+                         final Duration left = deadline.remaining();
+                         if (left.isZero() || isDeadlineFailure(cause)) {
+                             return CompletableFuture.<HttpResponse<T>>failedFuture(deadline.exceeded());
+                         }
+
+                         if (attempt >= maxAttempts
+                             || !retryOn.test(cause)
+                             || left.compareTo(backoff) <= 0) {
+                             return CompletableFuture.<HttpResponse<T>>failedFuture(cause);
+                         }
+
+                         return CompletableFuture.supplyAsync(() -> null,
+                                                              CompletableFuture.delayedExecutor(backoff.toNanos(), TimeUnit.NANOSECONDS))
+                                                 .thenCompose(ignored -> attempt(client, request, handler, deadline,
+                                                                                 attempt + 1, maxAttempts, backoff, retryOn));
+                     })
+                     .thenCompose(stage -> stage);
+    }
+
+    private static boolean isDeadlineFailure(final Throwable cause) {
+        return cause instanceof DeadlineExceededException
+               || cause instanceof CancellationException
+               || cause instanceof HttpTimeoutException && !(cause instanceof HttpConnectTimeoutException);
+    }
+
+    private static Throwable unwrap(final Throwable ex) {
+        return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+    }
+
+    /**
+     * Cancels the upstream subscription and fails the delegate once the deadline passes.
+     * <p>
+     * The expiry fires on the timer thread while {@code onNext} may be running on a client thread, so signals to the
+     * delegate are serialized: if the deadline passes during {@code onNext}, the timeout is handed over and delivered
+     * by that thread once the delegate returns.
+     */
+    private static final class DeadlineBodySubscriber<T> implements HttpResponse.BodySubscriber<T> {
+
+        private static final int IDLE = 0;
+        private static final int EMITTING = 1;
+        private static final int EXPIRED_WHILE_EMITTING = 2;
+        private static final int DONE = 3;
+
+        private final HttpResponse.BodySubscriber<T> delegate;
+        private final Deadline deadline;
+        private final AtomicInteger state = new AtomicInteger(IDLE);
+        private volatile Flow.Subscription subscription;
+        private volatile ScheduledFuture<?> expiry;
+
+        private DeadlineBodySubscriber(final HttpResponse.BodySubscriber<T> delegate, final Deadline deadline) {
+            this.delegate = delegate;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public CompletionStage<T> getBody() {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void onSubscribe(final Flow.Subscription subscription) {
+            this.subscription = subscription;
+            delegate.onSubscribe(subscription);
+            expiry = deadline.onExpiry(this::expire);
+        }
+
+        @Override
+        public void onNext(final List<ByteBuffer> item) {
+            if (!state.compareAndSet(IDLE, EMITTING)) {
+                return;
+            }
+
+            delegate.onNext(item);
+
+            if (!state.compareAndSet(EMITTING, IDLE)) {
+                state.set(DONE);
+                timeout();
+            }
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            if (state.compareAndSet(IDLE, DONE)) {
+                cancelExpiry();
+                delegate.onError(throwable);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            if (state.compareAndSet(IDLE, DONE)) {
+                cancelExpiry();
+                delegate.onComplete();
+            }
+        }
+
+        private void expire() {
+            while (true) {
+                final int current = state.get();
+                if (current == IDLE && state.compareAndSet(IDLE, DONE)) {
+                    timeout();
+                    return;
+                }
+                if (current == EMITTING && state.compareAndSet(EMITTING, EXPIRED_WHILE_EMITTING)) {
+                    return;
+                }
+                if (current == EXPIRED_WHILE_EMITTING || current == DONE) {
+                    return;
+                }
+            }
+        }
+
+        private void timeout() {
+            subscription.cancel();
+            delegate.onError(deadline.exceeded());
+        }
+
+        private void cancelExpiry() {
+            final ScheduledFuture<?> scheduled = expiry;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package dev.httpclients.deadline;
+
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+/**
+ * Deadline-bound exchanges on WebClient.
+ * <p>
+ * The deadline is taken from the {@link Deadline#KEY} request attribute or, failing that, from the Reactor context,
+ * so nested calls made inside a filter inherit the caller's deadline. Each exchange is bounded by the remaining budget
+ * (covering pool acquisition, connect and response headers) and the response body is cut off when the deadline passes.
+ * Cancelling the exchange makes Reactor Netty close or release the connection.
+ */
+public final class WebClientDeadlines {
+
+    private WebClientDeadlines() {
+    }
+
+    public static ExchangeFilterFunction filter() {
+        return WebClientDeadlines::exchange;
+    }
+
+    /**
+     * Retry spec that backs off with a fixed delay and gives up as soon as the delay would overrun the deadline.
+     * Combined with {@link #filter()}, every retried attempt gets only the budget that is still left.
+     */
+    public static Retry retry(final Deadline deadline,
+                              final int maxRetries,
+                              final Duration backoff,
+                              final Predicate<Throwable> retryOn) {
+        return Retry.fixedDelay(maxRetries, backoff)
+                    .filter(ex -> !(ex instanceof DeadlineExceededException)
+                                  && retryOn.test(ex)
+                                  && deadline.remaining().compareTo(backoff) > 0)
+                    .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+    }
+
+    private static Mono<ClientResponse> exchange(final ClientRequest request, final ExchangeFunction next) {
+        return Mono.deferContextual(context -> {
+            final Deadline deadline = request.attribute(Deadline.KEY)
+                                             .map(Deadline.class::cast)
+                                             .orElseGet(() -> context.getOrDefault(Deadline.KEY, null));
+            if (deadline == null) {
+                return next.exchange(request);
+            }
+            final Duration remaining = deadline.remaining();
+            if (remaining.isZero()) {
+                return Mono.error(deadline.exceeded());
+            }
+
+            return next.exchange(request)
+                       .timeout(remaining)
+                       .onErrorMap(TimeoutException.class, ex -> deadline.exceeded())
+                       .map(response -> response.mutate()
+                                                .body(body -> bounded(body, deadline))
+                                                .build())
+                       .contextWrite(ctx -> ctx.put(Deadline.KEY, deadline));
+        });
+    }
+
+    private static <T> Flux<T> bounded(final Flux<T> body, final Deadline deadline) {
+        return Flux.defer(() -> {
+            final AtomicBoolean expired = new AtomicBoolean();
+
+            return body.takeUntilOther(Mono.delay(deadline.remaining())
+                                           .doOnNext(ignored -> expired.set(true)))
+                       .concatWith(Mono.defer(() -> expired.get() ? Mono.error(deadline.exceeded()) : Mono.empty()));
+        });
+    }
+}
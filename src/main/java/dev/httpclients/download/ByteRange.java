@@ -0,0 +1,47 @@
+package dev.httpclients.download;
+
+/**
+ * Inclusive byte range {@code [first, last]}. A {@code last} of {@code -1} means "to the end of the object" and is sent
+ * without a {@code Range} header.
+ */
+public record ByteRange(
+        long first,
+        long last
+) {
+
+    public boolean isOpenEnded() {
+        return last < 0;
+    }
+
+    public long length() {
+        return isOpenEnded() ? -1 : last - first + 1;
+    }
+
+    public String header() {
+        return "bytes=" + first + "-" + last;
+    }
+
+    /**
+     * Open-ended ranges expect a plain 200; anything else must come back as a 206 whose
+     * {@code Content-Range: bytes first-last/total} matches this range. A 200 to a ranged request means the server
+     * ignored the range or, if it was sent with {@code If-Range}, that the object changed.
+     */
+    void checkResponse(final int status, final String contentRange, final boolean ifRange) throws DownloadException {
+        if (isOpenEnded()) {
+            if (status != 200) {
+                throw new DownloadException("Unexpected response status " + status + " for full download");
+            }
+            return;
+        }
+
+        if (status == 200 && ifRange) {
+            throw new ObjectChangedException("Object changed during download: If-Range did not match for range " + header());
+        }
+        if (status != 206) {
+            throw new DownloadException("Expected 206 for range " + header() + " but got " + status);
+        }
+        if (contentRange == null || !contentRange.startsWith("bytes " + first + "-" + last + "/")) {
+            throw new DownloadException("Content-Range '" + contentRange + "' does not match " + header());
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package dev.httpclients.download;
+
+import java.io.IOException;
+
+/**
+ * Signals a response that cannot be used for a ranged download, or a result that failed verification.
+ */
+public class DownloadException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    public DownloadException(final String message) {
+        super(message);
+    }
+}
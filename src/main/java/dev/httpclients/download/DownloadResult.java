@@ -0,0 +1,22 @@
+package dev.httpclients.download;
+
+import java.time.Duration;
+
+/**
+ * Outcome of a {@link ParallelDownloader} run. {@code retries} counts range attempts beyond the first one.
+ */
+public record DownloadResult(
+        long size,
+        String etag,
+        int ranges,
+        int retries,
+        boolean checksumVerified,
+        Duration elapsed
+) {
+
+    public double megabytesPerSecond() {
+        final long nanos = elapsed.toNanos();
+
+        return nanos == 0 ? 0 : size / (1024d * 1024d) * 1_000_000_000d / nanos;
+    }
+}
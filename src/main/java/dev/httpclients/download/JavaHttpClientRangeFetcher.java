@@ -0,0 +1,155 @@
+package dev.httpclients.download;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+/**
+ * {@link RangeFetcher} on the JDK {@link HttpClient}. Body buffers are written to the sink as they arrive, without
+ * aggregating the range in memory.
+ */
+final class JavaHttpClientRangeFetcher implements RangeFetcher {
+
+    private final HttpClient client;
+
+    JavaHttpClientRangeFetcher(final HttpClient client) {
+        this.client = client;
+    }
+
+    @Override
+    public CompletableFuture<ObjectInfo> probe(final URI uri) {
+        return client.sendAsync(HttpRequest.newBuilder(uri)
+                                           .method("HEAD", HttpRequest.BodyPublishers.noBody())
+                                           .build(),
+                                HttpResponse.BodyHandlers.discarding())
+                     .thenCompose(response -> {
+                         final HttpHeaders headers = response.headers();
+                         final ObjectInfo info;
+                         try {
+                             info = ObjectInfo.fromHead(response.statusCode(),
+                                                        headers.firstValueAsLong("Content-Length").orElse(-1),
+                                                        headers.firstValue("ETag").orElse(null),
+                                                        headers.firstValue("Last-Modified").orElse(null),
+                                                        headers.firstValue("Accept-Ranges").orElse(null));
+                         } catch (DownloadException e) {
+                             return CompletableFuture.failedFuture(e);
+                         }
+
+                         return info != null ? CompletableFuture.completedFuture(info) : probeRange(uri);
+                     });
+    }
+
+    private CompletableFuture<ObjectInfo> probeRange(final URI uri) {
+        return client.sendAsync(HttpRequest.newBuilder(uri)
+                                           .header("Range", ObjectInfo.PROBE_RANGE)
+                                           .GET()
+                                           .build(),
+                                HttpResponse.BodyHandlers.ofInputStream())
+                     .thenApply(response -> {
+                         // closing the body right away aborts a full 200 response instead of reading the object
+                         final InputStream body = response.body();
+                         try {
+                             body.close();
+
+                             final HttpHeaders headers = response.headers();
+
+                             return ObjectInfo.fromRangeProbe(response.statusCode(),
+                                                              headers.firstValue("Content-Range").orElse(null),
+                                                              headers.firstValueAsLong("Content-Length").orElse(-1),
+                                                              headers.firstValue("ETag").orElse(null),
+                                                              headers.firstValue("Last-Modified").orElse(null));
+                         } catch (IOException e) {
+                             throw new CompletionException(e);
+                         }
+                     });
+    }
+
+    @Override
+    public CompletableFuture<Void> fetch(final URI uri, final ByteRange range, final String ifRange, final RangeSink sink) {
+        final HttpRequest.Builder request = HttpRequest.newBuilder(uri).GET();
+        if (!range.isOpenEnded()) {
+            request.header("Range", range.header());
+            if (ifRange != null) {
+                request.header("If-Range", ifRange);
+            }
+        }
+
+        return client.sendAsync(request.build(), responseInfo -> new SinkSubscriber(range, ifRange != null, responseInfo, sink))
+                     .thenApply(response -> null);
+    }
+
+    private static final class SinkSubscriber implements HttpResponse.BodySubscriber<Void> {
+
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+        private final ByteRange range;
+        private final boolean ifRange;
+        private final HttpResponse.ResponseInfo responseInfo;
+        private final RangeSink sink;
+        private Flow.Subscription subscription;
+
+        private SinkSubscriber(final ByteRange range,
+                               final boolean ifRange,
+                               final HttpResponse.ResponseInfo responseInfo,
+                               final RangeSink sink) {
+            this.range = range;
+            this.ifRange = ifRange;
+            this.responseInfo = responseInfo;
+            this.sink = sink;
+        }
+
+        @Override
+        public CompletionStage<Void> getBody() {
+            return result;
+        }
+
+        @Override
+        public void onSubscribe(final Flow.Subscription subscription) {
+            this.subscription = subscription;
+            try {
+                range.checkResponse(responseInfo.statusCode(), responseInfo.headers().firstValue("Content-Range").orElse(null), ifRange);
+            } catch (DownloadException e) {
+                subscription.cancel();
+                result.completeExceptionally(e);
+                return;
+            }
+
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(final List<ByteBuffer> items) {
+            if (result.isDone()) {
+                return;
+            }
+
+            try {
+                for (final ByteBuffer item : items) {
+                    sink.write(item);
+                }
+            } catch (IOException e) {
+                subscription.cancel();
+                result.completeExceptionally(e);
+            }
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            result.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            result.complete(null);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package dev.httpclients.download;
+
+/**
+ * Signals that the object changed while it was being downloaded: a range request carrying {@code If-Range} was
+ * answered with the full object. Retrying cannot help, so the download fails at once.
+ */
+public class ObjectChangedException extends DownloadException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ObjectChangedException(final String message) {
+        super(message);
+    }
+}
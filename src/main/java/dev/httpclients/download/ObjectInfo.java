@@ -0,0 +1,92 @@
+package dev.httpclients.download;
+
+/**
+ * What a probe learned about a remote object. {@code contentLength} is {@code -1} and {@code etag} and
+ * {@code lastModified} are {@code null} when the server did not report them.
+ */
+public record ObjectInfo(
+        long contentLength,
+        String etag,
+        String lastModified,
+        boolean acceptsRanges
+) {
+
+    static final String PROBE_RANGE = "bytes=0-0";
+
+    /**
+     * Validator to send as {@code If-Range}: the ETag if it is strong, otherwise the {@code Last-Modified} date, or
+     * {@code null} if there is neither. Weak ETags are not allowed in {@code If-Range}, and servers that get one ignore
+     * the {@code Range} and answer with the full object.
+     */
+    public String ifRange() {
+        if (etag != null && !etag.startsWith("W/")) {
+            return etag;
+        }
+
+        return lastModified;
+    }
+
+    /**
+     * Reads a {@code HEAD} response. Returns {@code null} when a ranged {@code GET} (see {@link #PROBE_RANGE}) should
+     * be tried instead: the server rejected {@code HEAD} with a 4xx, as object stores do for presigned {@code GET}
+     * URLs, or did not report both the length and range support.
+     */
+    static ObjectInfo fromHead(final int status,
+                               final long contentLength,
+                               final String etag,
+                               final String lastModified,
+                               final String acceptRanges) throws DownloadException {
+        if (status / 100 == 4) {
+            return null;
+        }
+        if (status / 100 != 2) {
+            throw new DownloadException("Unexpected response status " + status + " for HEAD probe");
+        }
+        if (contentLength < 0 || !"bytes".equalsIgnoreCase(acceptRanges)) {
+            return null;
+        }
+
+        return new ObjectInfo(contentLength, etag, lastModified, true);
+    }
+
+    /**
+     * Reads the response to a {@code GET} with {@code Range: }{@link #PROBE_RANGE}. A 206 or 416 carries the total
+     * length in {@code Content-Range}; a 200 means the server ignores ranges. Any other 4xx degrades to a single
+     * stream, whose own request then reports the actual error.
+     */
+    static ObjectInfo fromRangeProbe(final int status,
+                                     final String contentRange,
+                                     final long contentLength,
+                                     final String etag,
+                                     final String lastModified) throws DownloadException {
+        if (status == 206 || status == 416) {
+            return new ObjectInfo(total(contentRange), etag, lastModified, true);
+        }
+        if (status == 200) {
+            return new ObjectInfo(contentLength, etag, lastModified, false);
+        }
+        if (status / 100 == 4) {
+            return new ObjectInfo(-1, null, null, false);
+        }
+
+        throw new DownloadException("Unexpected response status " + status + " for range probe");
+    }
+
+    private static long total(final String contentRange) throws DownloadException {
+        final int slash = contentRange == null ? -1 : contentRange.lastIndexOf('/');
+        if (slash < 0) {
+            throw new DownloadException("Missing total length in Content-Range '" + contentRange + "'");
+        }
+
+        final String total = contentRange.substring(slash + 1).trim();
+        if ("*".equals(total)) {
+            return -1;
+        }
+
+        try {
+            return Long.parseLong(total);
+        } catch (NumberFormatException e) {
+            throw new DownloadException("Invalid total length in Content-Range '" + contentRange + "'");
+        }
+    }
+}
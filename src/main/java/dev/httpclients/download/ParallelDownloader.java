@@ -0,0 +1,361 @@
+package dev.httpclients.download;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Downloads a large object over several connections at once.
+ * <p>
+ * The object is probed with {@code HEAD}, or with a one-byte ranged {@code GET} where {@code HEAD} is rejected or
+ * inconclusive, split into byte ranges that are fetched concurrently, and every range is written at its own offset
+ * into a pre-allocated file. A failed range is retried on its own, resuming after the last byte already written; once a
+ * range fails for good, or the object turns out to have changed (see {@link ObjectChangedException}), the other ranges
+ * are cancelled and the download fails with that error. The result is checked against the probed length and, when the {@code ETag} is a plain MD5 (as for single-part S3
+ * objects), against the file's MD5. Servers without range support, or objects of unknown length, are downloaded over a
+ * single connection; I/O errors and 5xx responses during the probe fail the download.
+ */
+public final class ParallelDownloader {
+
+    private static final Pattern MD5_ETAG = Pattern.compile("^\"?([0-9a-fA-F]{32})\"?$");
+
+    private final RangeFetcher fetcher;
+    private final int ranges;
+    private final long minRangeSize;
+    private final int maxAttemptsPerRange;
+    private final Duration retryBackoff;
+    private final boolean verifyChecksum;
+
+    private ParallelDownloader(final Builder builder) {
+        this.fetcher = builder.fetcher;
+        this.ranges = builder.ranges;
+        this.minRangeSize = builder.minRangeSize;
+        this.maxAttemptsPerRange = builder.maxAttemptsPerRange;
+        this.retryBackoff = builder.retryBackoff;
+        this.verifyChecksum = builder.verifyChecksum;
+    }
+
+    public static Builder builder(final RangeFetcher fetcher) {
+        return new Builder(fetcher);
+    }
+
+    public DownloadResult download(final URI uri, final Path target) throws IOException, InterruptedException {
+        final long start = System.nanoTime();
+        final ObjectInfo info = await(fetcher.probe(uri));
+        final List<ByteRange> plan = split(info);
+
+        try (final FileChannel channel = FileChannel.open(target,
+                                                          StandardOpenOption.CREATE,
+                                                          StandardOpenOption.TRUNCATE_EXISTING,
+                                                          StandardOpenOption.READ,
+                                                          StandardOpenOption.WRITE)) {
+            if (info.contentLength() > 0) {
+                channel.write(ByteBuffer.allocate(1), info.contentLength() - 1);
+            }
+
+            final Transfer transfer = new Transfer();
+            final List<CompletableFuture<Long>> fetches = new ArrayList<>(plan.size());
+            for (final ByteRange range : plan) {
+                fetches.add(attempt(uri, range, info.ifRange(), new RangeWriter(channel, range.first(), transfer), 1, transfer));
+            }
+            await(CompletableFuture.allOf(fetches.toArray(CompletableFuture[]::new))
+                                   .handle((ignored, ex) -> {
+                                       // report the range that failed first, not a sibling cancelled because of it
+                                       if (ex != null) {
+                                           throw new CompletionException(transfer.failure() != null ? transfer.failure() : unwrap(ex));
+                                       }
+                                       return null;
+                                   }));
+
+            long size = 0;
+            for (final CompletableFuture<Long> fetch : fetches) {
+                size += fetch.join();
+            }
+
+            if (info.contentLength() >= 0 && size != info.contentLength()) {
+                throw new DownloadException("Downloaded " + size + " bytes, expected " + info.contentLength());
+            }
+            if (info.contentLength() < 0) {
+                channel.truncate(size);
+            }
+
+            final boolean checksumVerified = verifyChecksum && verifyMd5(channel, info.etag());
+
+            return new DownloadResult(size,
+                                      info.etag(),
+                                      plan.size(),
+                                      transfer.retries(),
+                                      checksumVerified,
+                                      Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    private List<ByteRange> split(final ObjectInfo info) {
+        final long length = info.contentLength();
+        if (length == 0) {
+            return List.of();
+        }
+        if (length < 0 || !info.acceptsRanges()) {
+            return List.of(new ByteRange(0, -1));
+        }
+
+        final long count = Math.max(1, Math.min(ranges, (length + minRangeSize - 1) / minRangeSize));
+        final long rangeSize = (length + count - 1) / count;
+
+        final List<ByteRange> plan = new ArrayList<>();
+        for (long first = 0; first < length; first += rangeSize) {
+            plan.add(new ByteRange(first, Math.min(length, first + rangeSize) - 1));
+        }
+
+        return plan;
+    }
+
+    private CompletableFuture<Long> attempt(final URI uri,
+                                            final ByteRange range,
+                                            final String ifRange,
+                                            final RangeWriter writer,
+                                            final int attempt,
+                                            final Transfer transfer) {
+        if (transfer.failure() != null) {
+            return CompletableFuture.failedFuture(transfer.failure());
+        }
+
+        final ByteRange remaining;
+        if (range.isOpenEnded()) {
+            writer.reset();
+            remaining = range;
+        } else {
+            remaining = new ByteRange(range.first() + writer.written(), range.last());
+        }
+
+        return transfer.track(fetcher.fetch(uri, remaining, ifRange, writer))
+                      .thenApply(ignored -> {
+                          if (!range.isOpenEnded() && writer.written() != range.length()) {
+                              throw new CompletionException(new DownloadException("Range " + range.header() + " ended after "
+                                                                                  + writer.written() + " bytes"));
+                          }
+
+                          return writer.written();
+                      })
+                      .handle((written, ex) -> {
+                          if (ex == null) {
+                              return CompletableFuture.completedFuture(written);
+                          }
+                          if (!range.isOpenEnded() && writer.written() == range.length()) {
+                              return CompletableFuture.completedFuture(writer.written());
+                          }
+                          final Throwable cause = unwrap(ex);
+                          if (transfer.failure() != null) {
+                              return CompletableFuture.<Long>failedFuture(cause);
+                          }
+                          if (attempt >= maxAttemptsPerRange || cause instanceof ObjectChangedException) {
+                              transfer.abort(cause);
+                              return CompletableFuture.<Long>failedFuture(cause);
+                          }
+
+                          transfer.retried();
+
+                          return CompletableFuture.supplyAsync(() -> null,
+                                                               CompletableFuture.delayedExecutor(retryBackoff.toMillis(), TimeUnit.MILLISECONDS))
+                                                  .thenCompose(ignored -> attempt(uri, range, ifRange, writer, attempt + 1, transfer));
+                      })
+                      .thenCompose(future -> future);
+    }
+
+    private static boolean verifyMd5(final FileChannel channel, final String etag) throws IOException {
+        final Matcher matcher = etag == null ? null : MD5_ETAG.matcher(etag);
+        if (matcher == null || !matcher.matches()) {
+            return false;
+        }
+
+        final MessageDigest md5;
+        try {
+            md5 = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(1024 * 1024);
+        long position = 0;
+        int read;
+        while ((read = channel.read(buffer.clear(), position)) > 0) {
+            md5.update(buffer.flip());
+            position += read;
+        }
+
+        final String actual = HexFormat.of().formatHex(md5.digest());
+        if (!actual.equalsIgnoreCase(matcher.group(1))) {
+            throw new DownloadException("MD5 " + actual + " does not match ETag " + etag);
+        }
+
+        return true;
+    }
+
+    private static <T> T await(final CompletableFuture<T> future) throws IOException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            final Throwable cause = unwrap(e.getCause());
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private static Throwable unwrap(final Throwable ex) {
+        return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+    }
+
+    /**
+     * State shared by the ranges of one download: the retry count, the fetches still running and the first failure
+     * that ended the download. Aborting cancels the running fetches; their writers also refuse further bytes, so a
+     * fetch stops even if its engine does not act on the cancellation.
+     */
+    private static final class Transfer {
+
+        private final AtomicInteger retries = new AtomicInteger();
+        private final Set<CompletableFuture<Void>> fetches = ConcurrentHashMap.newKeySet();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        private CompletableFuture<Void> track(final CompletableFuture<Void> fetch) {
+            fetches.add(fetch);
+            fetch.whenComplete((ignored, ex) -> fetches.remove(fetch));
+            if (failure.get() != null) {
+                fetch.cancel(true);
+            }
+
+            return fetch;
+        }
+
+        private void abort(final Throwable cause) {
+            if (failure.compareAndSet(null, cause)) {
+                fetches.forEach(fetch -> fetch.cancel(true));
+            }
+        }
+
+        private Throwable failure() {
+            return failure.get();
+        }
+
+        private void retried() {
+            retries.incrementAndGet();
+        }
+
+        private int retries() {
+            return retries.get();
+        }
+    }
+
+    /**
+     * Writes one range at its absolute offset. Calls for a range are sequential, but may come from different threads
+     * across retries.
+     */
+    private static final class RangeWriter implements RangeSink {
+
+        private final FileChannel channel;
+        private final long offset;
+        private final Transfer transfer;
+        private volatile long written;
+
+        private RangeWriter(final FileChannel channel, final long offset, final Transfer transfer) {
+            this.channel = channel;
+            this.offset = offset;
+            this.transfer = transfer;
+        }
+
+        @Override
+        public void write(final ByteBuffer data) throws IOException {
+            if (transfer.failure() != null) {
+                throw new IOException("Download aborted");
+            }
+
+            long position = offset + written;
+            while (data.hasRemaining()) {
+                position += channel.write(data, position);
+            }
+            written = position - offset;
+        }
+
+        private long written() {
+            return written;
+        }
+
+        private void reset() {
+            written = 0;
+        }
+    }
+
+    public static final class Builder {
+
+        private final RangeFetcher fetcher;
+        private int ranges = 8;
+        private long minRangeSize = 1024 * 1024;
+        private int maxAttemptsPerRange = 3;
+        private Duration retryBackoff = Duration.ofMillis(100);
+        private boolean verifyChecksum = true;
+
+        private Builder(final RangeFetcher fetcher) {
+            this.fetcher = fetcher;
+        }
+
+        public Builder ranges(final int ranges) {
+            this.ranges = ranges;
+            return this;
+        }
+
+        /**
+         * Objects are not split into ranges smaller than this, so small downloads don't pay for extra connections.
+         */
+        public Builder minRangeSize(final long minRangeSize) {
+            this.minRangeSize = minRangeSize;
+            return this;
+        }
+
+        public Builder maxAttemptsPerRange(final int maxAttemptsPerRange) {
+            this.maxAttemptsPerRange = maxAttemptsPerRange;
+            return this;
+        }
+
+        public Builder retryBackoff(final Duration retryBackoff) {
+            this.retryBackoff = retryBackoff;
+            return this;
+        }
+
+        public Builder verifyChecksum(final boolean verifyChecksum) {
+            this.verifyChecksum = verifyChecksum;
+            return this;
+        }
+
+        public ParallelDownloader build() {
+            if (ranges <= 0 || minRangeSize <= 0 || maxAttemptsPerRange <= 0) {
+                throw new IllegalArgumentException("ranges, minRangeSize and maxAttemptsPerRange must be positive");
+            }
+
+            return new ParallelDownloader(this);
+        }
+    }
+}
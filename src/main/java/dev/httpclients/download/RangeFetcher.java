@@ -0,0 +1,29 @@
+package dev.httpclients.download;
+
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Engine-specific part of a ranged download: probing the object and streaming a single range into a {@link RangeSink}.
+ */
+public interface RangeFetcher {
+
+    CompletableFuture<ObjectInfo> probe(URI uri);
+
+    /**
+     * Streams {@code range} into the sink. When {@code ifRange} (see {@link ObjectInfo#ifRange()}) is not {@code null}
+     * it is sent as {@code If-Range}, so a changed object fails the range instead of mixing bytes from two versions.
+     */
+    CompletableFuture<Void> fetch(URI uri, ByteRange range, String ifRange, RangeSink sink);
+
+    static RangeFetcher javaHttpClient(final HttpClient client) {
+        return new JavaHttpClientRangeFetcher(client);
+    }
+
+    static RangeFetcher webClient(final WebClient webClient) {
+        return new WebClientRangeFetcher(webClient);
+    }
+}
@@ -0,0 +1,13 @@
+package dev.httpclients.download;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Receives the body of one range in arrival order; the sink knows the absolute file offset to write it at.
+ */
+@FunctionalInterface
+public interface RangeSink {
+
+    void write(ByteBuffer data) throws IOException;
+}
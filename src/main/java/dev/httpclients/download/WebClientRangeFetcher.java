@@ -0,0 +1,113 @@
+package dev.httpclients.download;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link RangeFetcher} on WebClient. File writes are moved off the event loop to the bounded-elastic scheduler, and
+ * each {@link DataBuffer} is released as soon as it has been written.
+ */
+final class WebClientRangeFetcher implements RangeFetcher {
+
+    private final WebClient webClient;
+
+    WebClientRangeFetcher(final WebClient webClient) {
+        this.webClient = webClient;
+    }
+
+    @Override
+    public CompletableFuture<ObjectInfo> probe(final URI uri) {
+        return webClient.head()
+                        .uri(uri)
+                        .exchangeToMono(response -> {
+                            final HttpHeaders headers = response.headers().asHttpHeaders();
+                            try {
+                                return Mono.justOrEmpty(ObjectInfo.fromHead(response.statusCode().value(),
+                                                                            headers.getContentLength(),
+                                                                            headers.getETag(),
+                                                                            headers.getFirst(HttpHeaders.LAST_MODIFIED),
+                                                                            headers.getFirst(HttpHeaders.ACCEPT_RANGES)));
+                            } catch (DownloadException e) {
+                                return Mono.error(e);
+                            }
+                        })
+                        .switchIfEmpty(Mono.defer(() -> probeRange(uri)))
+                        .toFuture();
+    }
+
+    private Mono<ObjectInfo> probeRange(final URI uri) {
+        return webClient.get()
+                        .uri(uri)
+                        .header(HttpHeaders.RANGE, ObjectInfo.PROBE_RANGE)
+                        .exchangeToMono(response -> {
+                            final HttpHeaders headers = response.headers().asHttpHeaders();
+                            final ObjectInfo info;
+                            try {
+                                info = ObjectInfo.fromRangeProbe(response.statusCode().value(),
+                                                                 headers.getFirst(HttpHeaders.CONTENT_RANGE),
+                                                                 headers.getContentLength(),
+                                                                 headers.getETag(),
+                                                                 headers.getFirst(HttpHeaders.LAST_MODIFIED));
+                            } catch (DownloadException e) {
+                                return response.releaseBody().then(Mono.error(e));
+                            }
+
+                            // cancelling the body aborts a full 200 response instead of reading the object
+                            return response.bodyToFlux(DataBuffer.class)
+                                           .take(0)
+                                           .then(Mono.just(info));
+                        });
+    }
+
+    @Override
+    public CompletableFuture<Void> fetch(final URI uri, final ByteRange range, final String ifRange, final RangeSink sink) {
+        return webClient.get()
+                        .uri(uri)
+                        .headers(headers -> {
+                            if (!range.isOpenEnded()) {
+                                headers.set(HttpHeaders.RANGE, range.header());
+                                if (ifRange != null) {
+                                    headers.set(HttpHeaders.IF_RANGE, ifRange);
+                                }
+                            }
+                        })
+                        .exchangeToFlux(response -> {
+                            try {
+                                range.checkResponse(response.statusCode().value(),
+                                                    response.headers().asHttpHeaders().getFirst(HttpHeaders.CONTENT_RANGE),
+                                                    ifRange != null);
+                            } catch (DownloadException e) {
+                                return response.releaseBody().thenMany(Flux.error(e));
+                            }
+
+                            return response.bodyToFlux(DataBuffer.class);
+                        })
+                        .publishOn(Schedulers.boundedElastic())
+                        .doOnNext(buffer -> {
+                            try (final DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+                                while (iterator.hasNext()) {
+                                    final ByteBuffer data = iterator.next();
+                                    sink.write(data);
+                                }
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            } finally {
+                                DataBufferUtils.release(buffer);
+                            }
+                        })
+                        .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                        .then()
+                        .toFuture();
+    }
+}
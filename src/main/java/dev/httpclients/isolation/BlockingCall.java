@@ -0,0 +1,25 @@
+package dev.httpclients.isolation;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * A blocking call observed by {@link BlockingCallDetector}. {@code blockedFor} is a lower bound: the time between
+ * the first and the latest sample that saw the thread blocked in {@code blockingFrame}.
+ */
+public record BlockingCall(
+        String threadName,
+        StackTraceElement blockingFrame,
+        Duration blockedFor,
+        StackTraceElement[] stackTrace
+) {
+
+    @Override
+    public String toString() {
+        return "Blocking call " + blockingFrame + " on " + threadName + " for at least " + blockedFor.toMillis() + " ms"
+               + Arrays.stream(stackTrace)
+                       .map(frame -> "\n\tat " + frame)
+                       .collect(Collectors.joining());
+    }
+}
@@ -0,0 +1,231 @@
+package dev.httpclients.isolation;
+
+import reactor.core.scheduler.NonBlocking;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Reports blocking calls on threads that must not block, such as event loops.
+ * <p>
+ * BlockHound instruments the blocking JDK methods through a Java agent. This detector works without an agent or extra
+ * dependency: it samples the stack of every watched thread at a fixed interval, and a thread seen inside a known
+ * blocking method (sleep, wait, park, file and stream I/O) or waiting for a monitor is reported once per episode,
+ * with its stack trace. Calls shorter than the sample interval can slip through, so it is meant for tests and
+ * canaries rather than as a hard guarantee. Idle worker threads waiting for their next task are not reported.
+ * <p>
+ * By default all {@link NonBlocking} threads are watched, which covers Reactor Netty event loops and Reactor's
+ * parallel scheduler.
+ */
+public final class BlockingCallDetector implements AutoCloseable {
+
+    private static final Set<String> BLOCKING_METHODS = Set.of("java.lang.Thread.sleep",
+                                                               "java.lang.Thread.sleep0",
+                                                               "java.lang.Thread.sleepNanos",
+                                                               "java.lang.Thread.sleepNanos0",
+                                                               "java.lang.Thread.join",
+                                                               "java.lang.Object.wait",
+                                                               "java.lang.Object.wait0",
+                                                               "jdk.internal.misc.Unsafe.park",
+                                                               "java.io.FileInputStream.read",
+                                                               "java.io.FileInputStream.readBytes",
+                                                               "java.io.FileOutputStream.write",
+                                                               "java.io.FileOutputStream.writeBytes",
+                                                               "java.io.RandomAccessFile.read0",
+                                                               "java.io.RandomAccessFile.readBytes",
+                                                               "java.io.RandomAccessFile.write0",
+                                                               "java.io.RandomAccessFile.writeBytes",
+                                                               "sun.nio.ch.FileDispatcherImpl.read0",
+                                                               "sun.nio.ch.FileDispatcherImpl.pread0",
+                                                               "sun.nio.ch.FileDispatcherImpl.write0",
+                                                               "sun.nio.ch.FileDispatcherImpl.pwrite0",
+                                                               "sun.nio.ch.FileDispatcherImpl.force0",
+                                                               "sun.nio.ch.NioSocketImpl.park",
+                                                               "java.net.InetAddress.getAllByName");
+
+    private static final Set<String> IDLE_METHODS = Set.of("java.util.concurrent.ThreadPoolExecutor.getTask",
+                                                           "java.util.concurrent.ForkJoinPool.awaitWork",
+                                                           "io.netty.util.concurrent.SingleThreadEventExecutor.takeTask");
+
+    private static final int MAX_REPORTS = 100;
+
+    private final Predicate<Thread> threads;
+    private final long thresholdNanos;
+    private final Consumer<BlockingCall> listener;
+    private final ScheduledExecutorService sampler;
+    private final Map<Thread, Episode> episodes = new HashMap<>();
+    private final Deque<BlockingCall> reports = new ArrayDeque<>();
+    private long reported;
+
+    private BlockingCallDetector(final Builder builder) {
+        this.threads = builder.threads;
+        this.thresholdNanos = builder.threshold.toNanos();
+        this.listener = builder.listener;
+        this.sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = Executors.defaultThreadFactory().newThread(runnable);
+            thread.setName("blocking-call-detector");
+            thread.setDaemon(true);
+            return thread;
+        });
+        final long interval = builder.sampleInterval.toNanos();
+        this.sampler.scheduleAtFixedRate(this::sample, interval, interval, TimeUnit.NANOSECONDS);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * The most recent reports, oldest first.
+     */
+    public synchronized List<BlockingCall> calls() {
+        return List.copyOf(reports);
+    }
+
+    public synchronized long count() {
+        return reported;
+    }
+
+    @Override
+    public void close() {
+        sampler.shutdownNow();
+    }
+
+    private void sample() {
+        final long now = System.nanoTime();
+        for (final Thread thread : liveThreads()) {
+            if (!threads.test(thread)) {
+                continue;
+            }
+
+            final Thread.State state = thread.getState();
+            final StackTraceElement[] stack = thread.getStackTrace();
+            final StackTraceElement frame = blockingFrame(state, stack);
+            if (frame == null) {
+                episodes.remove(thread);
+                continue;
+            }
+
+            Episode episode = episodes.get(thread);
+            if (episode == null || !episode.frame.equals(frame)) {
+                episode = new Episode(frame, now);
+                episodes.put(thread, episode);
+            }
+            if (!episode.reported && now - episode.startNanos >= thresholdNanos) {
+                episode.reported = true;
+                report(new BlockingCall(thread.getName(), frame, Duration.ofNanos(now - episode.startNanos), stack));
+            }
+        }
+        episodes.keySet().removeIf(thread -> !thread.isAlive());
+    }
+
+    private void report(final BlockingCall call) {
+        synchronized (this) {
+            reported++;
+            reports.addLast(call);
+            if (reports.size() > MAX_REPORTS) {
+                reports.removeFirst();
+            }
+        }
+        listener.accept(call);
+    }
+
+    private static StackTraceElement blockingFrame(final Thread.State state, final StackTraceElement[] stack) {
+        if (stack.length == 0) {
+            return null;
+        }
+
+        StackTraceElement blocking = state == Thread.State.BLOCKED ? stack[0] : null;
+        for (final StackTraceElement frame : stack) {
+            final String method = frame.getClassName() + "." + frame.getMethodName();
+            if (IDLE_METHODS.contains(method)) {
+                return null;
+            }
+            if (blocking == null && BLOCKING_METHODS.contains(method)) {
+                blocking = frame;
+            }
+        }
+
+        return blocking;
+    }
+
+    private static Thread[] liveThreads() {
+        ThreadGroup root = Thread.currentThread().getThreadGroup();
+        while (root.getParent() != null) {
+            root = root.getParent();
+        }
+
+        Thread[] threads = new Thread[root.activeCount() + 16];
+        int count;
+        while ((count = root.enumerate(threads, true)) == threads.length) {
+            threads = new Thread[threads.length * 2];
+        }
+
+        return Arrays.copyOf(threads, count);
+    }
+
+    private static final class Episode {
+
+        private final StackTraceElement frame;
+        private final long startNanos;
+        private boolean reported;
+
+        private Episode(final StackTraceElement frame, final long startNanos) {
+            this.frame = frame;
+            this.startNanos = startNanos;
+        }
+    }
+
+    public static final class Builder {
+
+        private Predicate<Thread> threads = NonBlocking.class::isInstance;
+        private Duration sampleInterval = Duration.ofMillis(10);
+        private Duration threshold = Duration.ZERO;
+        private Consumer<BlockingCall> listener = call -> { };
+
+        private Builder() {
+        }
+
+        public Builder threads(final Predicate<Thread> threads) {
+            this.threads = threads;
+            return this;
+        }
+
+        public Builder sampleInterval(final Duration sampleInterval) {
+            this.sampleInterval = sampleInterval;
+            return this;
+        }
+
+        /**
+         * Minimum time a thread has to be seen blocked before it is reported; zero reports the first sighting.
+         */
+        public Builder threshold(final Duration threshold) {
+            this.threshold = threshold;
+            return this;
+        }
+
+        public Builder listener(final Consumer<BlockingCall> listener) {
+            this.listener = listener;
+            return this;
+        }
+
+        public BlockingCallDetector start() {
+            if (sampleInterval.isZero() || sampleInterval.isNegative() || threshold.isNegative()) {
+                throw new IllegalArgumentException("sampleInterval must be positive and threshold not negative");
+            }
+
+            return new BlockingCallDetector(this);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package dev.httpclients.isolation;
+
+import io.netty.channel.EventLoopGroup;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Dedicated, sized threads for one family of HTTP clients, so that they don't share (and can't stall) the global
+ * Reactor Netty loops or the JDK client's default cached pool.
+ * <p>
+ * There are three pools, all named after the resources ({@code <name>-loop-*}, {@code <name>-jdk-*},
+ * {@code <name>-offload-*}):
+ * <ul>
+ *     <li>Netty event loops for WebClient, which must only ever run non-blocking code,</li>
+ *     <li>a fixed executor for the JDK {@link HttpClient}, on which it runs body handlers and subscribers (dependent
+ *     stages of the futures it returns run on the common pool, so blocking callbacks belong on the offload
+ *     executor),</li>
+ *     <li>a bounded offload scheduler for user callbacks that may block (file I/O, logging, stub edits in tests).
+ *     Once its queue is full, further tasks are rejected instead of piling up.</li>
+ * </ul>
+ */
+public final class ClientResources implements AutoCloseable {
+
+    private final String name;
+    private final LoopResources loops;
+    private final boolean preferNative;
+    private final ThreadPoolExecutor jdkExecutor;
+    private final Scheduler offloadScheduler;
+
+    private ClientResources(final Builder builder) {
+        this.name = builder.name;
+        this.loops = LoopResources.create(builder.name + "-loop", 1, builder.eventLoopThreads, true);
+        this.preferNative = builder.preferNative;
+        this.jdkExecutor = new ThreadPoolExecutor(builder.jdkThreads,
+                                                  builder.jdkThreads,
+                                                  60,
+                                                  TimeUnit.SECONDS,
+                                                  new LinkedBlockingQueue<>(),
+                                                  namedDaemon(builder.name + "-jdk-"));
+        this.jdkExecutor.allowCoreThreadTimeOut(true);
+        this.offloadScheduler = Schedulers.newBoundedElastic(builder.offloadThreads,
+                                                             builder.offloadQueue,
+                                                             builder.name + "-offload",
+                                                             60,
+                                                             true);
+    }
+
+    public static Builder builder(final String name) {
+        return new Builder(name);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public LoopResources loopResources() {
+        return loops;
+    }
+
+    public EventLoopGroup eventLoopGroup() {
+        return loops.onClient(preferNative);
+    }
+
+    public reactor.netty.http.client.HttpClient reactorHttpClient() {
+        return reactor.netty.http.client.HttpClient.create()
+                                                   .runOn(loops, preferNative);
+    }
+
+    public reactor.netty.http.client.HttpClient reactorHttpClient(final ConnectionProvider provider) {
+        return reactor.netty.http.client.HttpClient.create(provider)
+                                                   .runOn(loops, preferNative);
+    }
+
+    public WebClient.Builder webClientBuilder() {
+        return WebClient.builder()
+                        .clientConnector(new ReactorClientHttpConnector(reactorHttpClient()));
+    }
+
+    public ExecutorService jdkExecutor() {
+        return jdkExecutor;
+    }
+
+    public HttpClient.Builder jdkHttpClientBuilder() {
+        return HttpClient.newBuilder()
+                         .executor(jdkExecutor);
+    }
+
+    public Scheduler offloadScheduler() {
+        return offloadScheduler;
+    }
+
+    /**
+     * The offload scheduler as an {@link Executor}, for {@code thenAcceptAsync(..., executor)} on JDK client futures.
+     */
+    public Executor offloadExecutor() {
+        return offloadScheduler::schedule;
+    }
+
+    /**
+     * Delivers the {@code ClientResponse} on the offload scheduler, so outer filters and operators on the response
+     * signal run off the event loop. Body chunks are still read on the loop; use {@link #offload(Mono)} on the
+     * decoded result to move the consumer as well.
+     */
+    public ExchangeFilterFunction offloadFilter() {
+        return (request, next) -> next.exchange(request)
+                                      .publishOn(offloadScheduler);
+    }
+
+    public <T> Mono<T> offload(final Mono<T> mono) {
+        return mono.publishOn(offloadScheduler);
+    }
+
+    public <T> Flux<T> offload(final Flux<T> flux) {
+        return flux.publishOn(offloadScheduler);
+    }
+
+    public Predicate<Thread> eventLoopThreads() {
+        final String prefix = name + "-loop-";
+
+        return thread -> thread.getName().startsWith(prefix);
+    }
+
+    /**
+     * Lag monitor probing every event loop plus the JDK and offload executors of these resources.
+     */
+    public EventLoopLagMonitor.Builder lagMonitor() {
+        return EventLoopLagMonitor.builder()
+                                  .eventLoops(eventLoopGroup())
+                                  .executor(name + "-jdk", jdkExecutor)
+                                  .executor(name + "-offload", offloadExecutor());
+    }
+
+    @Override
+    public void close() {
+        offloadScheduler.dispose();
+        jdkExecutor.shutdown();
+        loops.disposeLater(Duration.ZERO, Duration.ofSeconds(5)).block();
+    }
+
+    private static ThreadFactory namedDaemon(final String prefix) {
+        final AtomicInteger counter = new AtomicInteger();
+
+        return runnable -> {
+            final Thread thread = Executors.defaultThreadFactory().newThread(runnable);
+            thread.setName(prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    public static final class Builder {
+
+        private final String name;
+        private int eventLoopThreads = LoopResources.DEFAULT_IO_WORKER_COUNT;
+        private boolean preferNative = LoopResources.DEFAULT_NATIVE;
+        private int jdkThreads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        private int offloadThreads = 10 * Runtime.getRuntime().availableProcessors();
+        private int offloadQueue = 10_000;
+
+        private Builder(final String name) {
+            this.name = name;
+        }
+
+        public Builder eventLoopThreads(final int eventLoopThreads) {
+            this.eventLoopThreads = eventLoopThreads;
+            return this;
+        }
+
+        public Builder preferNative(final boolean preferNative) {
+            this.preferNative = preferNative;
+            return this;
+        }
+
+        public Builder jdkThreads(final int jdkThreads) {
+            this.jdkThreads = jdkThreads;
+            return this;
+        }
+
+        public Builder offloadThreads(final int offloadThreads) {
+            this.offloadThreads = offloadThreads;
+            return this;
+        }
+
+        /**
+         * Tasks that may wait for an offload thread; beyond that, scheduling fails with
+         * {@code RejectedExecutionException}.
+         */
+        public Builder offloadQueue(final int offloadQueue) {
+            this.offloadQueue = offloadQueue;
+            return this;
+        }
+
+        public ClientResources build() {
+            if (eventLoopThreads <= 0 || jdkThreads <= 0 || offloadThreads <= 0 || offloadQueue <= 0) {
+                throw new IllegalArgumentException("Thread counts and offloadQueue must be positive");
+            }
+
+            return new ClientResources(this);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package dev.httpclients.isolation;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long tasks wait before an event loop (or any executor) gets to run them.
+ * <p>
+ * At every interval a no-op probe is submitted to each target and the time until it runs is recorded. A target
+ * only gets a new probe once the previous one has run; while a probe is still pending, its age counts as the current
+ * lag, so a loop stuck in a blocking call shows a growing lag before it recovers. A healthy loop stays well below a
+ * millisecond.
+ */
+public final class EventLoopLagMonitor implements AutoCloseable {
+
+    private final List<Probe> probes;
+    private final ScheduledExecutorService timer;
+
+    private EventLoopLagMonitor(final Builder builder) {
+        this.probes = List.copyOf(builder.probes);
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = Executors.defaultThreadFactory().newThread(runnable);
+            thread.setName("event-loop-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        final long interval = builder.interval.toNanos();
+        this.timer.scheduleAtFixedRate(this::probe, 0, interval, TimeUnit.NANOSECONDS);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public List<LoopLag> snapshot() {
+        final long now = System.nanoTime();
+
+        return probes.stream()
+                     .map(probe -> probe.snapshot(now))
+                     .toList();
+    }
+
+    /**
+     * The highest lag any target has seen since it was last {@link #reset()}.
+     */
+    public Duration maxLag() {
+        return snapshot().stream()
+                         .map(LoopLag::max)
+                         .max(Duration::compareTo)
+                         .orElse(Duration.ZERO);
+    }
+
+    public void reset() {
+        probes.forEach(Probe::reset);
+    }
+
+    @Override
+    public void close() {
+        timer.shutdownNow();
+    }
+
+    private void probe() {
+        final long now = System.nanoTime();
+        for (final Probe probe : probes) {
+            probe.submit(now);
+        }
+    }
+
+    /**
+     * Lag of one target. {@code current} is the last measured lag, or the age of a still pending probe if that is
+     * larger.
+     */
+    public record LoopLag(String name, Duration current, Duration max, Duration mean, long samples) {
+    }
+
+    private static final class Probe {
+
+        private final Executor executor;
+        private final boolean nameFromThread;
+        private String name;
+        private long pendingSince = -1;
+        private long last;
+        private long max;
+        private long total;
+        private long samples;
+
+        private Probe(final String name, final Executor executor, final boolean nameFromThread) {
+            this.name = name;
+            this.executor = executor;
+            this.nameFromThread = nameFromThread;
+        }
+
+        private void submit(final long now) {
+            synchronized (this) {
+                if (pendingSince >= 0) {
+                    max = Math.max(max, now - pendingSince);
+                    return;
+                }
+                pendingSince = now;
+            }
+
+            try {
+                executor.execute(this::run);
+            } catch (RejectedExecutionException e) {
+                synchronized (this) {
+                    pendingSince = -1;
+                }
+            }
+        }
+
+        private synchronized void run() {
+            final long lag = System.nanoTime() - pendingSince;
+            pendingSince = -1;
+            if (nameFromThread) {
+                name = Thread.currentThread().getName();
+            }
+            last = lag;
+            max = Math.max(max, lag);
+            total += lag;
+            samples++;
+        }
+
+        private synchronized LoopLag snapshot(final long now) {
+            final long current = pendingSince >= 0 ? Math.max(last, now - pendingSince) : last;
+
+            return new LoopLag(name,
+                               Duration.ofNanos(current),
+                               Duration.ofNanos(Math.max(max, current)),
+                               Duration.ofNanos(samples == 0 ? 0 : total / samples),
+                               samples);
+        }
+
+        private synchronized void reset() {
+            // a probe still queued from before the reset is timed from now, so its lag does not predate the reset
+            if (pendingSince >= 0) {
+                pendingSince = System.nanoTime();
+            }
+            last = 0;
+            max = 0;
+            total = 0;
+            samples = 0;
+        }
+    }
+
+    public static final class Builder {
+
+        private final List<Probe> probes = new ArrayList<>();
+        private Duration interval = Duration.ofMillis(100);
+
+        private Builder() {
+        }
+
+        /**
+         * Probes every loop of the group separately; they are named after their threads once the first probe ran,
+         * {@code <group>-<index>} until then.
+         */
+        public Builder eventLoops(final EventLoopGroup group) {
+            int index = 0;
+            for (final EventExecutor loop : group) {
+                probes.add(new Probe(group.getClass().getSimpleName() + "-" + index++, loop, true));
+            }
+            return this;
+        }
+
+        public Builder executor(final String name, final Executor executor) {
+            probes.add(new Probe(name, executor, false));
+            return this;
+        }
+
+        public Builder interval(final Duration interval) {
+            this.interval = interval;
+            return this;
+        }
+
+        public EventLoopLagMonitor start() {
+            if (interval.isZero() || interval.isNegative()) {
+                throw new IllegalArgumentException("interval must be positive");
+            }
+
+            return new EventLoopLagMonitor(this);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package dev.httpclients.loadbalancer;
+
+import java.net.URI;
+
+/**
+ * One replica behind a {@link LoadBalancer}, identified by its base URI (scheme, authority and optional base path).
+ */
+public record Endpoint(URI uri) {
+
+    public Endpoint {
+        if (uri.getScheme() == null || uri.getRawAuthority() == null) {
+            throw new IllegalArgumentException("Endpoint URI must be absolute: " + uri);
+        }
+    }
+
+    public static Endpoint of(final String uri) {
+        return new Endpoint(URI.create(uri));
+    }
+
+    /**
+     * Moves a request URI onto this endpoint: scheme and authority are replaced, the endpoint's base path is prefixed
+     * and the request's path, query and fragment are kept as they are (already encoded). Base path and request path
+     * are joined with exactly one {@code /}, whether or not either side has it, so {@code http://host/api} and
+     * {@code items} give {@code http://host/api/items}.
+     */
+    public URI resolve(final URI request) {
+        final String basePath = uri.getRawPath() == null ? "" : uri.getRawPath();
+        final String path = request.getRawPath() == null ? "" : request.getRawPath();
+        final StringBuilder resolved = new StringBuilder(uri.getScheme()).append("://")
+                                                                         .append(uri.getRawAuthority())
+                                                                         .append(joinPath(basePath, path));
+        if (request.getRawQuery() != null) {
+            resolved.append('?').append(request.getRawQuery());
+        }
+        if (request.getRawFragment() != null) {
+            resolved.append('#').append(request.getRawFragment());
+        }
+
+        return URI.create(resolved.toString());
+    }
+
+    private static String joinPath(final String basePath, final String path) {
+        if (path.isEmpty()) {
+            return basePath;
+        }
+
+        final String base = basePath.endsWith("/") ? basePath.substring(0, basePath.length() - 1) : basePath;
+
+        return path.startsWith("/") ? base + path : base + "/" + path;
+    }
+
+    @Override
+    public String toString() {
+        return uri.toString();
+    }
+}
@@ -0,0 +1,24 @@
+package dev.httpclients.loadbalancer;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Where a {@link LoadBalancer} gets its endpoints from. Static lists are read once; for service discovery, DNS or a
+ * config file, set a refresh interval on the balancer and it re-reads the source periodically.
+ */
+@FunctionalInterface
+public interface EndpointSource {
+
+    List<Endpoint> endpoints();
+
+    static EndpointSource of(final List<Endpoint> endpoints) {
+        final List<Endpoint> copy = List.copyOf(endpoints);
+
+        return () -> copy;
+    }
+
+    static EndpointSource of(final String... uris) {
+        return of(Arrays.stream(uris).map(Endpoint::of).toList());
+    }
+}
@@ -0,0 +1,17 @@
+package dev.httpclients.loadbalancer;
+
+import java.time.Duration;
+
+/**
+ * Point-in-time view of one endpoint. {@code latency} is the EWMA the balancer selects on, {@code failures} counts
+ * errors and 5xx responses.
+ */
+public record EndpointStats(
+        Endpoint endpoint,
+        Duration latency,
+        int inFlight,
+        long requests,
+        long failures,
+        boolean ejected
+) {
+}
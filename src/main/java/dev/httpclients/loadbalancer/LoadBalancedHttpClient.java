@@ -0,0 +1,88 @@
+package dev.httpclients.loadbalancer;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Load-balanced sends on the JDK {@link HttpClient}.
+ * <p>
+ * Requests are built against any absolute placeholder URI (e.g. {@code http://service/orders?id=1}); only path and
+ * query are kept and moved onto the endpoint picked by the {@link LoadBalancer}. Every endpoint gets its own
+ * {@code HttpClient} from the factory, so connection pools (and HTTP/2 connections) are never shared between
+ * endpoints, and the client of an endpoint dropped by a refresh is released. Latency is measured up to the completed
+ * response, including the body.
+ */
+public final class LoadBalancedHttpClient {
+
+    private final LoadBalancer balancer;
+    private final Supplier<HttpClient> clientFactory;
+    private final Map<Endpoint, HttpClient> clients = new ConcurrentHashMap<>();
+
+    private LoadBalancedHttpClient(final LoadBalancer balancer, final Supplier<HttpClient> clientFactory) {
+        this.balancer = balancer;
+        this.clientFactory = clientFactory;
+    }
+
+    public static LoadBalancedHttpClient create(final LoadBalancer balancer, final Supplier<HttpClient> clientFactory) {
+        final LoadBalancedHttpClient client = new LoadBalancedHttpClient(balancer, clientFactory);
+        balancer.onRemoved(client.clients::remove);
+
+        return client;
+    }
+
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(final HttpRequest request,
+                                                            final HttpResponse.BodyHandler<T> handler) {
+        final LoadBalancer.Selection selection = balancer.select();
+        final CompletableFuture<HttpResponse<T>> future;
+        try {
+            future = client(selection.endpoint()).sendAsync(route(request, selection.endpoint()), handler);
+        } catch (RuntimeException e) {
+            selection.failure();
+            throw e;
+        }
+
+        return future.whenComplete((response, ex) -> {
+            if (ex == null && response.statusCode() < 500) {
+                selection.success();
+            } else {
+                selection.failure();
+            }
+        });
+    }
+
+    public <T> HttpResponse<T> send(final HttpRequest request,
+                                    final HttpResponse.BodyHandler<T> handler) throws IOException, InterruptedException {
+        final LoadBalancer.Selection selection = balancer.select();
+        try {
+            final HttpResponse<T> response = client(selection.endpoint()).send(route(request, selection.endpoint()), handler);
+            if (response.statusCode() < 500) {
+                selection.success();
+            } else {
+                selection.failure();
+            }
+            return response;
+        } catch (InterruptedException e) {
+            selection.cancel();
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            selection.failure();
+            throw e;
+        }
+    }
+
+    private HttpClient client(final Endpoint endpoint) {
+        return clients.computeIfAbsent(endpoint, ignored -> clientFactory.get());
+    }
+
+    private static HttpRequest route(final HttpRequest request, final Endpoint endpoint) {
+        return HttpRequest.newBuilder(request, (name, value) -> true)
+                          .uri(endpoint.resolve(request.uri()))
+                          .build();
+    }
+}
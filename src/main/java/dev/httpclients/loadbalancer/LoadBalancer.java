@@ -0,0 +1,452 @@
+package dev.httpclients.loadbalancer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Client-side, latency-aware load balancing across the replicas of one service, shared by both engines (see
+ * {@link WebClientLoadBalancing} and {@link LoadBalancedHttpClient}).
+ * <p>
+ * Selection is power of two choices: two random endpoints are compared and the one with the lower cost wins, cost
+ * being the EWMA of its response latency times one plus its in-flight requests. This tracks slow replicas closely
+ * without the herding of always picking the global minimum. Endpoints without samples start at
+ * {@code initialLatency} (or the mean of the others after a refresh), so cold endpoints are still told apart by their
+ * in-flight requests. An endpoint's latency decays while it receives no traffic, so an endpoint that was avoided gets
+ * probed again eventually; it decays toward half the lowest latency in the pool rather than to zero, so the in-flight
+ * requests keep counting. A failure is recorded as at least {@code failurePenalty} times the current latency, so a
+ * replica that fails fast looks slower, not faster, than the healthy ones.
+ * <p>
+ * Outlier ejection: after {@code failureThreshold} consecutive failures (errors or 5xx) an endpoint is taken out of
+ * rotation for {@code baseEjectionTime} times the number of times it has been ejected, capped at
+ * {@code maxEjectionTime}. The ejection count is only forgiven after {@code failureThreshold} consecutive successes,
+ * so a replica that fails intermittently keeps getting the longer backoff. At most {@code maxEjectionPercent} of the endpoints are ejected at once, and if nothing
+ * selectable is left the balancer falls back to all endpoints rather than failing.
+ */
+public final class LoadBalancer implements AutoCloseable {
+
+    private final EndpointSource source;
+    private final double ewmaAlpha;
+    private final double failurePenalty;
+    private final long initialLatencyNanos;
+    private final long idleDecayNanos;
+    private final int failureThreshold;
+    private final long baseEjectionNanos;
+    private final long maxEjectionNanos;
+    private final int maxEjectionPercent;
+    private final ScheduledExecutorService refresher;
+    private final List<Consumer<Endpoint>> removalListeners = new CopyOnWriteArrayList<>();
+    private volatile List<EndpointState> states = List.of();
+
+    private LoadBalancer(final Builder builder) {
+        this.source = builder.source;
+        this.ewmaAlpha = builder.ewmaAlpha;
+        this.failurePenalty = builder.failurePenalty;
+        this.initialLatencyNanos = builder.initialLatency.toNanos();
+        this.idleDecayNanos = builder.idleDecay.toNanos();
+        this.failureThreshold = builder.failureThreshold;
+        this.baseEjectionNanos = builder.baseEjectionTime.toNanos();
+        this.maxEjectionNanos = builder.maxEjectionTime.toNanos();
+        this.maxEjectionPercent = builder.maxEjectionPercent;
+
+        refresh();
+
+        if (builder.refreshInterval.isZero()) {
+            this.refresher = null;
+        } else {
+            this.refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = Executors.defaultThreadFactory().newThread(runnable);
+                thread.setName("load-balancer-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+            final long interval = builder.refreshInterval.toNanos();
+            this.refresher.scheduleWithFixedDelay(this::refreshQuietly, interval, interval, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public static Builder builder(final EndpointSource source) {
+        return new Builder(source);
+    }
+
+    /**
+     * Picks an endpoint and counts the request as in flight until the returned selection is completed.
+     */
+    public Selection select() {
+        final List<EndpointState> current = states;
+        if (current.isEmpty()) {
+            throw new NoEndpointAvailableException("No endpoints available");
+        }
+
+        final long now = System.nanoTime();
+        final List<EndpointState> candidates = new ArrayList<>(current.size());
+        for (final EndpointState state : current) {
+            if (!state.isEjected(now)) {
+                candidates.add(state);
+            }
+        }
+        if (candidates.isEmpty()) {
+            candidates.addAll(current);
+        }
+
+        final EndpointState chosen;
+        if (candidates.size() == 1) {
+            chosen = candidates.get(0);
+        } else {
+            final ThreadLocalRandom random = ThreadLocalRandom.current();
+            final int first = random.nextInt(candidates.size());
+            int second = random.nextInt(candidates.size() - 1);
+            if (second >= first) {
+                second++;
+            }
+            final EndpointState a = candidates.get(first);
+            final EndpointState b = candidates.get(second);
+            final double floor = decayFloor(candidates);
+            chosen = a.cost(now, floor) <= b.cost(now, floor) ? a : b;
+        }
+
+        chosen.inFlight.incrementAndGet();
+
+        return new Selection(chosen, now);
+    }
+
+    /**
+     * Re-reads the endpoint source. Known endpoints keep their statistics; new ones start at the mean latency of the
+     * others so they neither get flooded nor starved; removed ones are reported to the removal listeners.
+     */
+    public synchronized void refresh() {
+        final Map<Endpoint, EndpointState> previous = new LinkedHashMap<>();
+        for (final EndpointState state : states) {
+            previous.put(state.endpoint, state);
+        }
+
+        final double initialEwma = meanLatency(previous.values());
+
+        final List<EndpointState> next = new ArrayList<>();
+        for (final Endpoint endpoint : source.endpoints()) {
+            final EndpointState known = previous.remove(endpoint);
+            if (known != null) {
+                next.add(known);
+            } else if (next.stream().noneMatch(state -> state.endpoint.equals(endpoint))) {
+                next.add(new EndpointState(endpoint, initialEwma));
+            }
+        }
+        states = List.copyOf(next);
+
+        for (final Endpoint removed : previous.keySet()) {
+            removalListeners.forEach(listener -> listener.accept(removed));
+        }
+    }
+
+    public List<Endpoint> endpoints() {
+        return states.stream()
+                     .map(state -> state.endpoint)
+                     .toList();
+    }
+
+    public List<EndpointStats> stats() {
+        final long now = System.nanoTime();
+
+        return states.stream()
+                     .map(state -> state.stats(now))
+                     .toList();
+    }
+
+    /**
+     * Called with every endpoint dropped by a refresh, so engines can release the connections they hold for it.
+     */
+    public void onRemoved(final Consumer<Endpoint> listener) {
+        removalListeners.add(listener);
+    }
+
+    @Override
+    public void close() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    /**
+     * Mean latency of the endpoints that have samples, or {@code initialLatency} if none has.
+     */
+    private double meanLatency(final Collection<EndpointState> candidates) {
+        return candidates.stream()
+                         .filter(EndpointState::hasSamples)
+                         .mapToDouble(EndpointState::latency)
+                         .average()
+                         .orElse(initialLatencyNanos);
+    }
+
+    /**
+     * Half the lowest latency among the candidates: low enough that an idle endpoint eventually undercuts the fastest
+     * one and is tried again.
+     */
+    private static double decayFloor(final List<EndpointState> candidates) {
+        return candidates.stream()
+                         .mapToDouble(EndpointState::latency)
+                         .min()
+                         .orElse(0) / 2;
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            // keep the last known endpoints when the source is temporarily unavailable
+        }
+    }
+
+    /**
+     * One request routed to an endpoint. Exactly one of {@link #success()}, {@link #failure()} or {@link #cancel()}
+     * should be called; later calls are ignored.
+     */
+    public final class Selection {
+
+        private final EndpointState state;
+        private final long startNanos;
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        private Selection(final EndpointState state, final long startNanos) {
+            this.state = state;
+            this.startNanos = startNanos;
+        }
+
+        public Endpoint endpoint() {
+            return state.endpoint;
+        }
+
+        public void success() {
+            if (done.compareAndSet(false, true)) {
+                state.complete(System.nanoTime() - startNanos, true);
+            }
+        }
+
+        public void failure() {
+            if (done.compareAndSet(false, true)) {
+                state.complete(System.nanoTime() - startNanos, false);
+            }
+        }
+
+        /**
+         * Releases the in-flight slot without recording a latency sample, e.g. when the caller lost interest.
+         */
+        public void cancel() {
+            if (done.compareAndSet(false, true)) {
+                state.inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    private final class EndpointState {
+
+        private final Endpoint endpoint;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private double ewmaNanos;
+        private long lastSampleNanos = System.nanoTime();
+        private long samples;
+        private long requests;
+        private long failures;
+        private int consecutiveFailures;
+        private int consecutiveSuccesses;
+        private int ejections;
+        private long ejectedUntilNanos;
+        private boolean ejected;
+
+        private EndpointState(final Endpoint endpoint, final double initialEwmaNanos) {
+            this.endpoint = endpoint;
+            this.ewmaNanos = initialEwmaNanos;
+        }
+
+        private synchronized double cost(final long now, final double floorNanos) {
+            final double floor = Math.min(ewmaNanos, floorNanos);
+            final double idle = Math.max(0, now - lastSampleNanos);
+            final double decayed = idleDecayNanos == 0
+                    ? ewmaNanos
+                    : floor + (ewmaNanos - floor) * Math.exp(-idle / idleDecayNanos);
+
+            return decayed * (inFlight.get() + 1);
+        }
+
+        private synchronized boolean hasSamples() {
+            return samples > 0;
+        }
+
+        private synchronized double latency() {
+            return ewmaNanos;
+        }
+
+        private synchronized boolean isEjected(final long now) {
+            if (ejected && now - ejectedUntilNanos >= 0) {
+                ejected = false;
+                consecutiveFailures = 0;
+            }
+
+            return ejected;
+        }
+
+        private void complete(final long latencyNanos, final boolean success) {
+            inFlight.decrementAndGet();
+
+            final boolean eject;
+            synchronized (this) {
+                final double sample = success ? latencyNanos : Math.max(latencyNanos, ewmaNanos * failurePenalty);
+                ewmaNanos = samples == 0 ? sample : ewmaNanos + ewmaAlpha * (sample - ewmaNanos);
+                lastSampleNanos = System.nanoTime();
+                samples++;
+                requests++;
+                if (success) {
+                    consecutiveFailures = 0;
+                    if (++consecutiveSuccesses >= failureThreshold) {
+                        ejections = 0;
+                    }
+                    return;
+                }
+                failures++;
+                consecutiveFailures++;
+                consecutiveSuccesses = 0;
+                eject = !ejected && consecutiveFailures >= failureThreshold;
+            }
+
+            if (eject) {
+                tryEject();
+            }
+        }
+
+        private void tryEject() {
+            synchronized (LoadBalancer.this) {
+                final long now = System.nanoTime();
+                final List<EndpointState> current = states;
+                final long ejectedCount = current.stream().filter(state -> state.isEjected(now)).count();
+                if ((ejectedCount + 1) * 100 > (long) maxEjectionPercent * current.size()) {
+                    return;
+                }
+
+                synchronized (this) {
+                    ejections++;
+                    ejected = true;
+                    ejectedUntilNanos = now + Math.min(maxEjectionNanos, baseEjectionNanos * ejections);
+                }
+            }
+        }
+
+        private synchronized EndpointStats stats(final long now) {
+            return new EndpointStats(endpoint,
+                                     Duration.ofNanos((long) ewmaNanos),
+                                     inFlight.get(),
+                                     requests,
+                                     failures,
+                                     isEjected(now));
+        }
+    }
+
+    public static final class Builder {
+
+        private final EndpointSource source;
+        private Duration refreshInterval = Duration.ZERO;
+        private double ewmaAlpha = 0.3;
+        private double failurePenalty = 2;
+        private Duration initialLatency = Duration.ofMillis(100);
+        private Duration idleDecay = Duration.ofSeconds(10);
+        private int failureThreshold = 5;
+        private Duration baseEjectionTime = Duration.ofSeconds(30);
+        private Duration maxEjectionTime = Duration.ofMinutes(5);
+        private int maxEjectionPercent = 50;
+
+        private Builder(final EndpointSource source) {
+            this.source = source;
+        }
+
+        /**
+         * How often the source is re-read; {@link Duration#ZERO} (the default) reads it once.
+         */
+        public Builder refreshInterval(final Duration refreshInterval) {
+            this.refreshInterval = refreshInterval;
+            return this;
+        }
+
+        /**
+         * Weight of each new latency sample in the EWMA.
+         */
+        public Builder ewmaAlpha(final double ewmaAlpha) {
+            this.ewmaAlpha = ewmaAlpha;
+            return this;
+        }
+
+        /**
+         * Factor over the current latency that a failure is recorded as at least, so failures never make an endpoint
+         * look faster.
+         */
+        public Builder failurePenalty(final double failurePenalty) {
+            this.failurePenalty = failurePenalty;
+            return this;
+        }
+
+        /**
+         * Latency assumed for endpoints without samples until their first response replaces it; once some endpoints
+         * have samples, endpoints added by a refresh start at their mean instead.
+         */
+        public Builder initialLatency(final Duration initialLatency) {
+            this.initialLatency = initialLatency;
+            return this;
+        }
+
+        /**
+         * Time constant with which an endpoint's latency decays while it gets no responses; zero disables decay.
+         */
+        public Builder idleDecay(final Duration idleDecay) {
+            this.idleDecay = idleDecay;
+            return this;
+        }
+
+        public Builder failureThreshold(final int failureThreshold) {
+            this.failureThreshold = failureThreshold;
+            return this;
+        }
+
+        public Builder baseEjectionTime(final Duration baseEjectionTime) {
+            this.baseEjectionTime = baseEjectionTime;
+            return this;
+        }
+
+        public Builder maxEjectionTime(final Duration maxEjectionTime) {
+            this.maxEjectionTime = maxEjectionTime;
+            return this;
+        }
+
+        public Builder maxEjectionPercent(final int maxEjectionPercent) {
+            this.maxEjectionPercent = maxEjectionPercent;
+            return this;
+        }
+
+        public LoadBalancer build() {
+            if (ewmaAlpha <= 0 || ewmaAlpha > 1) {
+                throw new IllegalArgumentException("ewmaAlpha must be in (0, 1]");
+            }
+            if (failurePenalty < 1) {
+                throw new IllegalArgumentException("failurePenalty must be at least 1");
+            }
+            if (failureThreshold <= 0 || maxEjectionPercent < 0 || maxEjectionPercent > 100) {
+                throw new IllegalArgumentException("failureThreshold must be positive and maxEjectionPercent within 0..100");
+            }
+            if (initialLatency.isZero() || initialLatency.isNegative()) {
+                throw new IllegalArgumentException("initialLatency must be positive");
+            }
+            if (refreshInterval.isNegative() || idleDecay.isNegative()) {
+                throw new IllegalArgumentException("refreshInterval and idleDecay must not be negative");
+            }
+
+            return new LoadBalancer(this);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package dev.httpclients.loadbalancer;
+
+/**
+ * Thrown by {@link LoadBalancer#select()} when the endpoint source is empty.
+ */
+public class NoEndpointAvailableException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public NoEndpointAvailableException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,76 @@
+package dev.httpclients.loadbalancer;
+
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+
+/**
+ * Load-balanced exchanges on WebClient.
+ * <p>
+ * The filter rewrites every request onto the endpoint picked by the {@link LoadBalancer}, so the WebClient is built
+ * without a base URL (or with a placeholder such as {@code http://service}) and called with paths. Latency is measured
+ * up to the response headers. Place the filter last, so that retry filters in front of it pick a fresh endpoint for
+ * every attempt.
+ */
+public final class WebClientLoadBalancing {
+
+    private WebClientLoadBalancing() {
+    }
+
+    public static ExchangeFilterFunction filter(final LoadBalancer balancer) {
+        return (request, next) -> exchange(balancer, request, next);
+    }
+
+    /**
+     * Connection provider with a separate pool of at most {@code maxConnectionsPerEndpoint} connections per endpoint
+     * (Reactor Netty pools per remote address); pools of endpoints dropped by a refresh are disposed.
+     */
+    public static ConnectionProvider connectionProvider(final LoadBalancer balancer,
+                                                        final String name,
+                                                        final int maxConnectionsPerEndpoint) {
+        final ConnectionProvider provider = ConnectionProvider.builder(name)
+                                                              .maxConnections(maxConnectionsPerEndpoint)
+                                                              .pendingAcquireTimeout(Duration.ofSeconds(10))
+                                                              .maxIdleTime(Duration.ofSeconds(30))
+                                                              .build();
+        balancer.onRemoved(endpoint -> provider.disposeWhen(address(endpoint)));
+
+        return provider;
+    }
+
+    private static Mono<ClientResponse> exchange(final LoadBalancer balancer,
+                                                 final ClientRequest request,
+                                                 final ExchangeFunction next) {
+        return Mono.defer(() -> {
+            final LoadBalancer.Selection selection = balancer.select();
+            final ClientRequest routed = ClientRequest.from(request)
+                                                      .url(selection.endpoint().resolve(request.url()))
+                                                      .build();
+
+            return next.exchange(routed)
+                       .doOnNext(response -> {
+                           if (response.statusCode().is5xxServerError()) {
+                               selection.failure();
+                           } else {
+                               selection.success();
+                           }
+                       })
+                       .doOnError(ex -> selection.failure())
+                       .doOnCancel(selection::cancel);
+        });
+    }
+
+    private static InetSocketAddress address(final Endpoint endpoint) {
+        final int port = endpoint.uri().getPort() >= 0
+                         ? endpoint.uri().getPort()
+                         : "https".equalsIgnoreCase(endpoint.uri().getScheme()) ? 443 : 80;
+
+        return InetSocketAddress.createUnresolved(endpoint.uri().getHost(), port);
+    }
+}
@@ -0,0 +1,161 @@
+package dev.httpclients;
+
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import dev.httpclients.isolation.BlockingCall;
+import dev.httpclients.isolation.BlockingCallDetector;
+import dev.httpclients.isolation.ClientResources;
+import dev.httpclients.isolation.EventLoopLagMonitor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClientResourcesTest {
+
+    @RegisterExtension
+    static WireMockExtension wm =
+            WireMockExtension.newInstance()
+                             .options(WireMockConfiguration.wireMockConfig()
+                                                           .dynamicPort())
+                             .build();
+
+    @Test
+    void webClient_ShouldRunOnDedicatedLoops_AndOffloadCallbacks() {
+        wm.stubFor(WireMock.get("/test").willReturn(WireMock.ok("Hello, world!")));
+
+        try (final ClientResources resources = ClientResources.builder("iso").eventLoopThreads(2).build()) {
+            final WebClient webClient = resources.webClientBuilder()
+                                                 .baseUrl(wm.getRuntimeInfo().getHttpBaseUrl())
+                                                 .build();
+
+            final String loopThread = webClient.get().uri("/test")
+                                               .retrieve()
+                                               .bodyToMono(String.class)
+                                               .map(body -> Thread.currentThread().getName())
+                                               .block();
+            final String callbackThread = resources.offload(webClient.get().uri("/test")
+                                                                     .retrieve()
+                                                                     .bodyToMono(String.class))
+                                                   .map(body -> Thread.currentThread().getName())
+                                                   .block();
+
+            assertTrue(loopThread.startsWith("iso-loop-"), loopThread);
+            assertTrue(callbackThread.startsWith("iso-offload-"), callbackThread);
+        }
+    }
+
+    @Test
+    void jdkClient_ShouldRunBodyHandlersOnDedicatedExecutor_AndOffloadCallbacks() {
+        wm.stubFor(WireMock.get("/test").willReturn(WireMock.ok("Hello, world!").withFixedDelay(100)));
+
+        try (final ClientResources resources = ClientResources.builder("iso").jdkThreads(2).build()) {
+            final HttpClient client = resources.jdkHttpClientBuilder()
+                                               .version(HttpClient.Version.HTTP_1_1)
+                                               .connectTimeout(Duration.ofSeconds(5L))
+                                               .build();
+            final HttpRequest request = HttpRequest.newBuilder(URI.create(wm.getRuntimeInfo().getHttpBaseUrl() + "/test"))
+                                                   .GET()
+                                                   .build();
+
+            final AtomicReference<String> handlerThread = new AtomicReference<>();
+            final HttpResponse.BodyHandler<String> handler = responseInfo -> {
+                handlerThread.set(Thread.currentThread().getName());
+                return HttpResponse.BodySubscribers.ofString(StandardCharsets.UTF_8);
+            };
+
+            final List<String> threads = client.sendAsync(request, handler)
+                                               .thenApplyAsync(response -> List.of(handlerThread.get(),
+                                                                                   Thread.currentThread().getName()),
+                                                               resources.offloadExecutor())
+                                               .join();
+
+            assertTrue(threads.get(0).startsWith("iso-jdk-"), threads.get(0));
+            assertTrue(threads.get(1).startsWith("iso-offload-"), threads.get(1));
+        }
+    }
+
+    @Test
+    void detector_ShouldReportBlockingCallOnEventLoop_WithStackTraceAndLag() {
+        wm.stubFor(WireMock.get("/test").willReturn(WireMock.ok("Hello, world!")));
+
+        try (final ClientResources resources = ClientResources.builder("iso").eventLoopThreads(1).build();
+             final BlockingCallDetector detector = BlockingCallDetector.builder()
+                                                                       .threads(resources.eventLoopThreads())
+                                                                       .sampleInterval(Duration.ofMillis(5))
+                                                                       .start();
+             final EventLoopLagMonitor lag = resources.lagMonitor()
+                                                      .interval(Duration.ofMillis(20))
+                                                      .start()) {
+            final WebClient webClient = resources.webClientBuilder()
+                                                 .baseUrl(wm.getRuntimeInfo().getHttpBaseUrl())
+                                                 .filter((request, next) -> next.exchange(request)
+                                                                                .doOnNext(ClientResourcesTest::sleepOnLoop))
+                                                 .build();
+
+            assertEquals("Hello, world!", webClient.get().uri("/test").retrieve().bodyToMono(String.class).block());
+
+            final List<BlockingCall> calls = detector.calls();
+            assertFalse(calls.isEmpty());
+            assertTrue(calls.get(0).threadName().startsWith("iso-loop-"), calls.get(0).threadName());
+            assertEquals("sleep", calls.get(0).blockingFrame().getMethodName().replaceAll("\\d|Nanos", ""));
+            assertTrue(Arrays.stream(calls.get(0).stackTrace())
+                             .anyMatch(frame -> frame.getMethodName().equals("sleepOnLoop")),
+                       calls.get(0)::toString);
+
+            assertTrue(lag.maxLag().compareTo(Duration.ofMillis(200)) >= 0, lag.snapshot()::toString);
+            assertTrue(lag.snapshot().stream().anyMatch(loop -> loop.name().startsWith("iso-loop-")), lag.snapshot()::toString);
+        }
+    }
+
+    @Test
+    void lagMonitor_ShouldNotReportLagFromBeforeReset() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (final EventLoopLagMonitor lag = EventLoopLagMonitor.builder()
+                                                                .executor("blocked", executor)
+                                                                .interval(Duration.ofMillis(20))
+                                                                .start()) {
+            executor.execute(() -> sleep(500));
+            Thread.sleep(250);
+
+            // the probe queued behind the blocking task is still pending and must be timed from the reset
+            lag.reset();
+            Thread.sleep(400);
+
+            final Duration maxLag = lag.maxLag();
+            assertTrue(maxLag.compareTo(Duration.ofMillis(150)) >= 0, lag.snapshot()::toString);
+            assertTrue(maxLag.compareTo(Duration.ofMillis(400)) < 0, lag.snapshot()::toString);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void sleepOnLoop(final ClientResponse response) {
+        sleep(300);
+    }
+
+    private static void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package dev.httpclients;
+
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import dev.httpclients.csv.BatchDispatcher;
+import dev.httpclients.csv.BatchResult;
+import dev.httpclients.csv.CsvPipeline;
+import dev.httpclients.csv.CsvRow;
+import dev.httpclients.csv.PipelineReport;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CsvPipelineTest {
+
+    @RegisterExtension
+    static WireMockExtension wm =
+            WireMockExtension.newInstance()
+                             .options(WireMockConfiguration.wireMockConfig()
+                                                           .dynamicPort())
+                             .build();
+
+    private static final HttpClient HTTP_CLIENT = HttpClient.newBuilder()
+                                                            .version(HttpClient.Version.HTTP_1_1)
+                                                            .connectTimeout(Duration.ofSeconds(5L))
+                                                            .build();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void run_ShouldDispatchAllRowsInOrderAndDeadLetterFailedBatches() throws Exception {
+        final String httpBaseUrl = wm.getRuntimeInfo().getHttpBaseUrl();
+        final Path csv = tempDir.resolve("large.csv");
+        final Path deadLetter = tempDir.resolve("dead-letter.csv");
+
+        Files.writeString(csv, "id,name,comment\n" + IntStream.range(0, 5_000)
+                                                             .mapToObj(i -> i + ",\"name, " + i + "\"," + (i == 4_242 ? "fail" : "\"ok \"\"quoted\"\"\""))
+                                                             .collect(Collectors.joining("\n")));
+
+        wm.stubFor(WireMock.post("/batch").willReturn(WireMock.aResponse()
+                                                              .withStatus(200)));
+        wm.stubFor(WireMock.post("/batch")
+                           .withRequestBody(WireMock.containing("fail"))
+                           .willReturn(WireMock.aResponse()
+                                               .withStatus(500)));
+
+        final BatchDispatcher dispatcher =
+                BatchDispatcher.javaHttpClient(HTTP_CLIENT, batch -> HttpRequest.newBuilder(URI.create(httpBaseUrl + "/batch"))
+                                                                                 .POST(HttpRequest.BodyPublishers.ofString(batch.stream()
+                                                                                                                                .map(row -> row.get("comment"))
+                                                                                                                                .collect(Collectors.joining("\n"))))
+                                                                                 .build());
+
+        final List<BatchResult> results = new CopyOnWriteArrayList<>();
+        final PipelineReport report = CsvPipeline.builder(dispatcher)
+                                                 .batchSize(100)
+                                                 .maxInFlight(8)
+                                                 .parallelism(4)
+                                                 .ordered(true)
+                                                 .deadLetter(deadLetter)
+                                                 .resultListener(results::add)
+                                                 .build()
+                                                 .run(csv);
+
+        System.out.println(report + " rows/s: " + report.rowsPerSecond());
+
+        assertEquals(5_000, report.rows());
+        assertEquals(1, report.failedBatches());
+
+        final List<String> ids = results.stream()
+                                        .flatMap(result -> result.rows().stream())
+                                        .map(row -> row.get("id"))
+                                        .toList();
+        assertEquals(IntStream.range(0, 5_000).mapToObj(String::valueOf).toList(), ids);
+        assertEquals("name, 7", results.get(0).rows().get(7).get("name"));
+        assertEquals("ok \"quoted\"", results.get(0).rows().get(7).get("comment"));
+
+        final List<String> deadLetterLines = Files.readAllLines(deadLetter);
+        assertEquals(101, deadLetterLines.size());
+        assertEquals("id,name,comment", deadLetterLines.get(0));
+        assertTrue(deadLetterLines.contains("4242,\"name, 4242\",fail"));
+    }
+
+    @Test
+    void run_ShouldDispatchThroughWebClient() throws Exception {
+        final String httpBaseUrl = wm.getRuntimeInfo().getHttpBaseUrl();
+        final URL resource = getClass().getClassLoader().getResource("test.csv");
+
+        wm.stubFor(WireMock.post("/rows").willReturn(WireMock.aResponse()
+                                                             .withStatus(200)));
+
+        final WebClient wc = WebClient.builder()
+                                      .baseUrl(httpBaseUrl)
+                                      .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                      .build();
+
+        final PipelineReport report = CsvPipeline.builder(BatchDispatcher.webClient(batch -> wc.post()
+                                                                                               .uri("/rows")
+                                                                                               .bodyValue(batch.stream()
+                                                                                                               .map(CsvRow::values)
+                                                                                                               .toList())
+                                                                                               .retrieve()
+                                                                                               .toBodilessEntity()))
+                                                 .batchSize(1)
+                                                 .build()
+                                                 .run(Path.of(resource.toURI()));
+
+        assertEquals(2, report.rows());
+        assertEquals(2, report.batches());
+        assertEquals(0, report.failedBatches());
+        wm.verify(2, WireMock.postRequestedFor(WireMock.urlEqualTo("/rows"))
+                             .withRequestBody(WireMock.matching(".*Doe.*|.*Dow.*")));
+    }
+
+    @Test
+    void run_ShouldFailBatches_WhenDispatcherReturnsNullOrThrows() throws Exception {
+        final Path csv = tempDir.resolve("broken-dispatcher.csv");
+        Files.writeString(csv, "id\n" + IntStream.range(0, 30).mapToObj(String::valueOf).collect(Collectors.joining("\n")));
+
+        final BatchDispatcher dispatcher = batch -> switch (batch.get(0).get("id")) {
+            case "0" -> null;
+            case "10" -> throw new IllegalArgumentException("rejected");
+            default -> CompletableFuture.completedFuture(null);
+        };
+
+        final List<BatchResult> results = new CopyOnWriteArrayList<>();
+        final PipelineReport report = assertTimeoutPreemptively(Duration.ofSeconds(10), () -> CsvPipeline.builder(dispatcher)
+                                                                                                          .batchSize(10)
+                                                                                                          .maxInFlight(1)
+                                                                                                          .ordered(true)
+                                                                                                          .resultListener(results::add)
+                                                                                                          .build()
+                                                                                                          .run(csv));
+
+        assertEquals(3, report.batches());
+        assertEquals(2, report.failedBatches());
+        assertEquals(List.of(false, false, true), results.stream().map(BatchResult::isSuccess).toList());
+    }
+
+    @Test
+    void run_ShouldRethrowListenerFailure_AfterAllBatchesCompleted() throws Exception {
+        final Path csv = tempDir.resolve("listener.csv");
+        Files.writeString(csv, "id\n" + IntStream.range(0, 30).mapToObj(String::valueOf).collect(Collectors.joining("\n")));
+
+        final List<BatchResult> results = new CopyOnWriteArrayList<>();
+        final CsvPipeline pipeline = CsvPipeline.builder(batch -> CompletableFuture.completedFuture(null))
+                                                .batchSize(10)
+                                                .maxInFlight(1)
+                                                .resultListener(result -> {
+                                                    results.add(result);
+                                                    throw new IllegalStateException("listener failed");
+                                                })
+                                                .build();
+
+        final IllegalStateException e = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                                                                  () -> assertThrows(IllegalStateException.class, () -> pipeline.run(csv)));
+
+        assertEquals("listener failed", e.getCause().getMessage());
+        assertEquals(2, e.getCause().getSuppressed().length);
+        assertEquals(3, results.size());
+    }
+}
@@ -0,0 +1,246 @@
+package dev.httpclients;
+
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.http.Fault;
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import dev.httpclients.deadline.Deadline;
+import dev.httpclients.deadline.DeadlineExceededException;
+import dev.httpclients.deadline.JavaHttpClientDeadlines;
+import dev.httpclients.deadline.WebClientDeadlines;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeadlineTest {
+
+    @RegisterExtension
+    static WireMockExtension wm =
+            WireMockExtension.newInstance()
+                             .options(WireMockConfiguration.wireMockConfig()
+                                                           .dynamicPort())
+                             .build();
+
+    private static final HttpClient HTTP_CLIENT = HttpClient.newBuilder()
+                                                            .version(HttpClient.Version.HTTP_1_1)
+                                                            .connectTimeout(Duration.ofSeconds(5L))
+                                                            .build();
+
+    @Test
+    void sendAsync_ShouldFailWithDeadlineExceeded_WhenResponseIsSlowerThanDeadline() {
+        final String httpBaseUrl = wm.getRuntimeInfo().getHttpBaseUrl();
+        final String url = "/test";
+
+        wm.stubFor(WireMock.get(url).willReturn(WireMock.aResponse()
+                                                        .withFixedDelay(3000)
+                                                        .withStatus(200)
+                                                        .withBody("Hello, world!")));
+
+        final long start = System.nanoTime();
+        final CompletionException ex = Assertions.assertThrows(CompletionException.class, () ->
+                JavaHttpClientDeadlines.sendAsync(HTTP_CLIENT,
+                                                  HttpRequest.newBuilder(URI.create(httpBaseUrl + url)).GET().build(),
+                                                  HttpResponse.BodyHandlers.ofByteArray(),
+                                                  Deadline.after(Duration.ofMillis(500)))
+                                       .join());
+
+        assertEquals(DeadlineExceededException.class, ex.getCause().getClass());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 2000);
+    }
+
+    @Test
+    void sendAsync_ShouldStopRetrying_WhenBackoffWouldOverrunDeadline() {
+        final String httpBaseUrl = wm.getRuntimeInfo().getHttpBaseUrl();
+        final String url = "/test";
+
+        wm.stubFor(WireMock.get(url).willReturn(WireMock.aResponse()
+                                                        .withFault(Fault.CONNECTION_RESET_BY_PEER)));
+
+        final long start = System.nanoTime();
+        final CompletionException ex = Assertions.assertThrows(CompletionException.class, () ->
+                JavaHttpClientDeadlines.sendAsync(HTTP_CLIENT,
+                                                  HttpRequest.newBuilder(URI.create(httpBaseUrl + url)).GET().build(),
+                                                  HttpResponse.BodyHandlers.ofByteArray(),
+                                                  Deadline.after(Duration.ofMillis(1000)),
+                                                  10,
+                                                  Duration.ofMillis(400),
+                                                  IOException.class::isInstance)
+                                       .join());
+
+        final long tookMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        assertTrue(ex.getCause() instanceof IOException, ex.getCause().toString());
+        assertTrue(tookMillis < 1500, "took " + tookMillis + " ms");
+        assertTrue(wm.countRequestsMatching(WireMock.getRequestedFor(WireMock.urlEqualTo(url)).build()).getCount() >= 2);
+    }
+
+    @Test
+    void sendAsync_ShouldCutOffStreamingBody_WhenDeadlinePasses() throws Exception {
+        final String httpBaseUrl = wm.getRuntimeInfo().getHttpBaseUrl();
+        final String url = "/stream";
+
+        wm.stubFor(WireMock.get(url).willReturn(WireMock.aResponse()
+                                                        .withStatus(200)
+                                                        .withBody("x".repeat(1024))
+                                                        .withChunkedDribbleDelay(8, 3000)));
+
+        final HttpResponse<InputStream> response =
+                JavaHttpClientDeadlines.sendAsync(HTTP_CLIENT,
+                                                  HttpRequest.newBuilder(URI.create(httpBaseUrl + url)).GET().build(),
+                                                  HttpResponse.BodyHandlers.ofInputStream(),
+                                                  Deadline.after(Duration.ofMillis(800)))
+                                       .join();
+
+        final long start = System.nanoTime();
+        try (final InputStream body = response.body()) {
+            final IOException ex = Assertions.assertThrows(IOException.class, body::readAllBytes);
+
+            assertTrue(ex.getCause() instanceof DeadlineExceededException, ex.toString());
+        }
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 2000);
+    }
+
+    @Test
+    void exchange_ShouldFailWithDeadlineExceeded_WhenWebClientResponseIsSlowerThanDeadline() {
+        final String httpBaseUrl = wm.getRuntimeInfo().getHttpBaseUrl();
+        final String url = "/test";
+
+        wm.stubFor(WireMock.get(url).willReturn(WireMock.aResponse()
+                                                        .withFixedDelay(3000)
+                                                        .withStatus(200)
+                                                        .withBody("Hello, world!")));
+
+        final WebClient wc = WebClient.builder()
+                                      .baseUrl(httpBaseUrl)
+                                      .filter(WebClientDeadlines.filter())
+                                      .build();
+
+        final long start = System.nanoTime();
+        Assertions.assertThrows(DeadlineExceededException.class, () ->
+                wc.method(HttpMethod.GET)
+                  .uri(url)
+                  .attribute(Deadline.KEY, Deadline.after(Duration.ofMillis(500)))
+                  .retrieve()
+                  .bodyToMono(String.class)
+                  .block());
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 2000);
+    }
+
+    @Test
+    void exchange_ShouldCutOffWebClientBody_WhenDeadlineFromContextPasses() {
+        final String httpBaseUrl = wm.getRuntimeInfo().getHttpBaseUrl();
+        final String url = "/stream";
+
+        wm.stubFor(WireMock.get(url).willReturn(WireMock.aResponse()
+                                                        .withStatus(200)
+                                                        .withBody("x".repeat(1024))
+                                                        .withChunkedDribbleDelay(8, 3000)));
+
+        final WebClient wc = WebClient.builder()
+                                      .baseUrl(httpBaseUrl)
+                                      .filter(WebClientDeadlines.filter())
+                                      .build();
+
+        final long start = System.nanoTime();
+        // retrieve() wraps errors raised while decoding the body into WebClientResponseException
+        final WebClientResponseException ex = Assertions.assertThrows(WebClientResponseException.class, () ->
+                wc.method(HttpMethod.GET)
+                  .uri(url)
+                  .retrieve()
+                  .bodyToMono(String.class)
+                  .contextWrite(context -> context.put(Deadline.KEY, Deadline.after(Duration.ofMillis(800))))
+                  .block());
+
+        assertEquals(DeadlineExceededException.class, ex.getCause().getClass());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 2000);
+    }
+
+    @Test
+    void retry_ShouldStopRetryingWebClient_WhenBackoffWouldOverrunDeadline() {
+        final String httpBaseUrl = wm.getRuntimeInfo().getHttpBaseUrl();
+        final String url = "/test";
+
+        wm.stubFor(WireMock.get(url).willReturn(WireMock.aResponse()
+                                                        .withStatus(503)));
+
+        final WebClient wc = WebClient.builder()
+                                      .baseUrl(httpBaseUrl)
+                                      .filter(WebClientDeadlines.filter())
+                                      .build();
+        final Deadline deadline = Deadline.after(Duration.ofMillis(1000));
+
+        final long start = System.nanoTime();
+        Assertions.assertThrows(WebClientResponseException.ServiceUnavailable.class, () ->
+                wc.method(HttpMethod.GET)
+                  .uri(url)
+                  .retrieve()
+                  .bodyToMono(String.class)
+                  .retryWhen(WebClientDeadlines.retry(deadline, 10, Duration.ofMillis(600), WebClientResponseException.class::isInstance))
+                  .contextWrite(context -> context.put(Deadline.KEY, deadline))
+                  .block());
+
+        final long tookMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+        final int attempts = wm.countRequestsMatching(WireMock.getRequestedFor(WireMock.urlEqualTo(url)).build()).getCount();
+
+        assertTrue(tookMillis < 1500, "took " + tookMillis + " ms");
+        assertEquals(2, attempts);
+    }
+
+    @Test
+    void retry_ShouldBoundRetriedWebClientAttempt_ByRemainingBudget() {
+        final String httpBaseUrl = wm.getRuntimeInfo().getHttpBaseUrl();
+        final String url = "/test";
+
+        wm.stubFor(WireMock.get(url)
+                           .inScenario("retry")
+                           .whenScenarioStateIs(Scenario.STARTED)
+                           .willReturn(WireMock.aResponse()
+                                               .withStatus(503))
+                           .willSetStateTo("slow"));
+        wm.stubFor(WireMock.get(url)
+                           .inScenario("retry")
+                           .whenScenarioStateIs("slow")
+                           .willReturn(WireMock.aResponse()
+                                               .withFixedDelay(3000)
+                                               .withStatus(200)
+                                               .withBody("Hello, world!")));
+
+        final WebClient wc = WebClient.builder()
+                                      .baseUrl(httpBaseUrl)
+                                      .filter(WebClientDeadlines.filter())
+                                      .build();
+        final Deadline deadline = Deadline.after(Duration.ofMillis(1000));
+
+        final long start = System.nanoTime();
+        Assertions.assertThrows(DeadlineExceededException.class, () ->
+                wc.method(HttpMethod.GET)
+                  .uri(url)
+                  .retrieve()
+                  .bodyToMono(String.class)
+                  .retryWhen(WebClientDeadlines.retry(deadline, 3, Duration.ofMillis(200), WebClientResponseException.class::isInstance))
+                  .contextWrite(context -> context.put(Deadline.KEY, deadline))
+                  .block());
+
+        final long tookMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        assertTrue(tookMillis < 1500, "took " + tookMillis + " ms");
+        wm.verify(2, WireMock.getRequestedFor(WireMock.urlEqualTo(url)));
+    }
+}
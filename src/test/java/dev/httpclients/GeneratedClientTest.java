@@ -0,0 +1,279 @@
+package dev.httpclients;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import dev.httpclients.codegen.GeneratedClient;
+import dev.httpclients.codegen.GeneratedClientProcessor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.service.annotation.DeleteExchange;
+import org.springframework.web.service.annotation.GetExchange;
+import org.springframework.web.service.annotation.HttpExchange;
+import org.springframework.web.service.annotation.PostExchange;
+import reactor.core.publisher.Mono;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class GeneratedClientTest {
+
+    @RegisterExtension
+    static WireMockExtension wm =
+            WireMockExtension.newInstance()
+                             .options(WireMockConfiguration.wireMockConfig()
+                                                           .dynamicPort())
+                             .build();
+
+    private static final HttpClient HTTP_CLIENT = HttpClient.newBuilder()
+                                                            .version(HttpClient.Version.HTTP_1_1)
+                                                            .connectTimeout(Duration.ofSeconds(5L))
+                                                            .build();
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void get_ShouldExpandTemplateAndDecodeBody_WithBothEngines() {
+        wm.stubFor(WireMock.get("/api/users/a%20b?expand=roles&expand=groups")
+                           .withHeader("X-Trace", WireMock.equalTo("t-1"))
+                           .withHeader("Accept", WireMock.equalTo(MediaType.APPLICATION_JSON_VALUE))
+                           .willReturn(WireMock.okJson("{\"id\":7,\"name\":\"Ann\"}")));
+
+        for (final UserClient client : clients()) {
+            final User user = client.get("a b", List.of("roles", "groups"), "t-1").block();
+
+            assertEquals(new User(7, "Ann"), user);
+        }
+        wm.verify(2, WireMock.getRequestedFor(WireMock.urlPathEqualTo("/api/users/a%20b")));
+    }
+
+    @Test
+    void create_ShouldSendJsonAndReturnEntity_WithBothEngines() throws Exception {
+        wm.stubFor(WireMock.post("/api/users")
+                           .withHeader("Content-Type", WireMock.containing(MediaType.APPLICATION_JSON_VALUE))
+                           .withRequestBody(WireMock.equalToJson("{\"id\":0,\"name\":\"Bob\"}"))
+                           .willReturn(WireMock.jsonResponse("{\"id\":8,\"name\":\"Bob\"}", 201)
+                                               .withHeader("Location", "/api/users/8")));
+
+        for (final UserClient client : clients()) {
+            final ResponseEntity<User> entity = client.create(new User(0, "Bob")).get();
+
+            assertEquals(HttpStatus.CREATED, entity.getStatusCode());
+            assertEquals("/api/users/8", entity.getHeaders().getFirst("Location"));
+            assertEquals(new User(8, "Bob"), entity.getBody());
+        }
+    }
+
+    @Test
+    void list_ShouldDecodeGenericBodyAndDelete_WithBothEngines() {
+        wm.stubFor(WireMock.get("/api/users?limit=2")
+                           .willReturn(WireMock.okJson("[{\"id\":1,\"name\":\"A\"},{\"id\":2,\"name\":\"B\"}]")));
+        wm.stubFor(WireMock.delete("/api/users/1").willReturn(WireMock.noContent()));
+
+        for (final UserClient client : clients()) {
+            assertEquals(List.of(new User(1, "A"), new User(2, "B")), client.list(2));
+            client.delete(1);
+        }
+        wm.verify(2, WireMock.deleteRequestedFor(WireMock.urlEqualTo("/api/users/1")));
+    }
+
+    @Test
+    void delete_ShouldThrowEngineSpecificNotFound_WhenServerReturns404() {
+        wm.stubFor(WireMock.delete("/api/users/9").willReturn(WireMock.notFound()));
+
+        final UserClient jdk = new Jdk_GeneratedClientTest_UserClient(HTTP_CLIENT, wm.baseUrl(), OBJECT_MAPPER);
+        final UserClient webClient = new WebClient_GeneratedClientTest_UserClient(WebClient.create(), wm.baseUrl());
+
+        Assertions.assertThrows(HttpClientErrorException.NotFound.class, () -> jdk.delete(9));
+        Assertions.assertThrows(WebClientResponseException.NotFound.class, () -> webClient.delete(9));
+    }
+
+    @Test
+    void upload_ShouldSendMultipartFormData_WithBothEngines() {
+        wm.stubFor(WireMock.post("/api/upload")
+                           .withMultipartRequestBody(WireMock.aMultipart("file")
+                                                             .withHeader("Content-Disposition", WireMock.containing("filename=\"test.csv\""))
+                                                             .withBody(WireMock.equalTo("a,b\n1,2\n")))
+                           .withMultipartRequestBody(WireMock.aMultipart("comment")
+                                                             .withBody(WireMock.equalTo("hello")))
+                           .willReturn(WireMock.ok("stored")));
+
+        final LinkedMultiValueMap<String, Object> parts = new LinkedMultiValueMap<>();
+        parts.add("comment", "hello");
+        parts.add("file", new ByteArrayResource("a,b\n1,2\n".getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public String getFilename() {
+                return "test.csv";
+            }
+        });
+
+        for (final UserClient client : clients()) {
+            final ResponseEntity<String> entity = client.upload(parts).block();
+
+            assertEquals(HttpStatus.OK, entity.getStatusCode());
+            assertEquals("stored", entity.getBody());
+        }
+    }
+
+    @Test
+    void get_ShouldFailWithoutRequest_WhenRequiredQueryParameterIsNull() {
+        for (final UserClient client : clients()) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> client.get("a", null, "t-1").block());
+        }
+        assertEquals(0, wm.getAllServeEvents().size());
+    }
+
+    @Test
+    void processor_ShouldReportError_ForParametersItCannotImplementLikeTheProxy() {
+        final Map<String, String> cases = Map.of(
+                "@RequestParam java.util.Map<String, String> params", "@RequestParam Map and MultiValueMap parameters are not supported",
+                "@RequestParam org.springframework.util.MultiValueMap<String, String> params", "@RequestParam Map and MultiValueMap parameters are not supported",
+                "@RequestHeader java.util.Map<String, String> headers", "@RequestHeader Map and MultiValueMap parameters are not supported",
+                "@RequestParam java.util.Optional<String> q", "Optional parameters are not supported",
+                "@RequestParam(required = false) String q", "@RequestParam(required = false) is not supported",
+                "@RequestParam(defaultValue = \"10\") String q", "@RequestParam(defaultValue) is not supported",
+                "@RequestHeader(name = \"X-Trace\", required = false) String trace", "@RequestHeader(required = false) is not supported",
+                "@RequestBody(required = false) String body", "@RequestBody(required = false) is not supported");
+
+        cases.forEach((parameter, error) -> {
+            final List<String> errors = compile("""
+                    package scratch;
+
+                    import org.springframework.web.bind.annotation.*;
+                    import org.springframework.web.service.annotation.PostExchange;
+
+                    @dev.httpclients.codegen.GeneratedClient
+                    interface ScratchClient {
+
+                        @PostExchange("/scratch")
+                        String call(%s);
+                    }
+                    """.formatted(parameter));
+
+            assertEquals(List.of(error), errors, parameter);
+        });
+    }
+
+    @Test
+    void processor_ShouldReportError_ForRequestParamOnFormEncodedRequest() {
+        final Map<String, String> cases = Map.of(
+                "@PostExchange(url = \"/scratch\", contentType = \"application/x-www-form-urlencoded\") String call(@RequestParam String q);",
+                "@RequestParam on form-encoded requests is not supported",
+                "@PostExchange(\"/scratch\") String call(@RequestParam String q, @RequestHeader(\"Content-Type\") String contentType);",
+                "@RequestParam together with a Content-Type @RequestHeader is not supported");
+
+        cases.forEach((method, error) -> {
+            final List<String> errors = compile("""
+                    package scratch;
+
+                    import org.springframework.web.bind.annotation.*;
+                    import org.springframework.web.service.annotation.PostExchange;
+
+                    @dev.httpclients.codegen.GeneratedClient
+                    interface ScratchClient {
+
+                        %s
+                    }
+                    """.formatted(method));
+
+            assertEquals(List.of(error), errors, method);
+        });
+    }
+
+    /**
+     * Runs only annotation processing on the source and returns the error messages.
+     */
+    private List<String> compile(final String source) {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        final JavaFileObject file = new SimpleJavaFileObject(URI.create("string:///scratch/ScratchClient.java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(final boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+
+        final JavaCompiler.CompilationTask task = compiler.getTask(null,
+                                                                   null,
+                                                                   diagnostics,
+                                                                   List.of("-proc:only",
+                                                                           "-classpath", System.getProperty("java.class.path"),
+                                                                           "-s", tempDir.toString(),
+                                                                           "-d", tempDir.toString()),
+                                                                   null,
+                                                                   List.of(file));
+        task.setProcessors(List.of(new GeneratedClientProcessor()));
+        assertFalse(task.call());
+
+        return diagnostics.getDiagnostics()
+                          .stream()
+                          .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                          .map(diagnostic -> diagnostic.getMessage(Locale.ROOT))
+                          .toList();
+    }
+
+    private static List<UserClient> clients() {
+        return List.of(new Jdk_GeneratedClientTest_UserClient(HTTP_CLIENT, wm.baseUrl(), OBJECT_MAPPER),
+                       new WebClient_GeneratedClientTest_UserClient(WebClient.create(), wm.baseUrl() + "/"));
+    }
+
+    record User(long id, String name) {
+    }
+
+    @GeneratedClient
+    @HttpExchange("/api")
+    interface UserClient {
+
+        @GetExchange(url = "/users/{id}", accept = MediaType.APPLICATION_JSON_VALUE)
+        Mono<User> get(@PathVariable("id") String id,
+                       @RequestParam("expand") List<String> expand,
+                       @RequestHeader("X-Trace") String trace);
+
+        @PostExchange(url = "/users", contentType = MediaType.APPLICATION_JSON_VALUE)
+        CompletableFuture<ResponseEntity<User>> create(@RequestBody User user);
+
+        @GetExchange("/users")
+        List<User> list(@RequestParam int limit);
+
+        @DeleteExchange("/users/{id}")
+        void delete(@PathVariable long id);
+
+        @PostExchange(url = "/upload", contentType = MediaType.MULTIPART_FORM_DATA_VALUE)
+        Mono<ResponseEntity<String>> upload(@RequestBody MultiValueMap<String, ?> parts);
+    }
+}
@@ -0,0 +1,253 @@
+package dev.httpclients;
+
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import dev.httpclients.loadbalancer.Endpoint;
+import dev.httpclients.loadbalancer.EndpointSource;
+import dev.httpclients.loadbalancer.EndpointStats;
+import dev.httpclients.loadbalancer.LoadBalancedHttpClient;
+import dev.httpclients.loadbalancer.LoadBalancer;
+import dev.httpclients.loadbalancer.WebClientLoadBalancing;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoadBalancerTest {
+
+    @RegisterExtension
+    static WireMockExtension fast = replica();
+
+    @RegisterExtension
+    static WireMockExtension medium = replica();
+
+    @RegisterExtension
+    static WireMockExtension slow = replica();
+
+    private static final HttpClient.Builder HTTP_CLIENT = HttpClient.newBuilder()
+                                                                    .version(HttpClient.Version.HTTP_1_1)
+                                                                    .connectTimeout(Duration.ofSeconds(5L));
+
+    @BeforeEach
+    void stubReplicas() {
+        fast.stubFor(WireMock.get("/test").willReturn(WireMock.ok("fast")));
+        medium.stubFor(WireMock.get("/test").willReturn(WireMock.ok("medium").withFixedDelay(40)));
+        slow.stubFor(WireMock.get("/test").willReturn(WireMock.ok("slow").withFixedDelay(300)));
+    }
+
+    @Test
+    void webClient_ShouldShiftTrafficAwayFromSlowReplicas() {
+        try (final LoadBalancer balancer = LoadBalancer.builder(EndpointSource.of(fast.baseUrl(), medium.baseUrl(), slow.baseUrl()))
+                                                       .build()) {
+            final WebClient webClient = WebClient.builder()
+                                                 .clientConnector(new ReactorClientHttpConnector(
+                                                         reactor.netty.http.client.HttpClient.create(
+                                                                 WebClientLoadBalancing.connectionProvider(balancer, "lb-test", 8))))
+                                                 .filter(WebClientLoadBalancing.filter(balancer))
+                                                 .build();
+
+            final List<String> bodies = Flux.range(0, 80)
+                                            .flatMap(i -> webClient.get().uri("/test").retrieve().bodyToMono(String.class), 4)
+                                            .collectList()
+                                            .block();
+
+            assertEquals(80, bodies.size());
+            assertShifted(balancer);
+        }
+    }
+
+    @Test
+    void javaHttpClient_ShouldShiftTrafficAwayFromSlowReplicas() {
+        try (final LoadBalancer balancer = LoadBalancer.builder(EndpointSource.of(fast.baseUrl(), medium.baseUrl(), slow.baseUrl()))
+                                                       .build()) {
+            final LoadBalancedHttpClient client = LoadBalancedHttpClient.create(balancer, HTTP_CLIENT::build);
+            final HttpRequest request = HttpRequest.newBuilder(URI.create("http://service/test")).GET().build();
+
+            for (int wave = 0; wave < 20; wave++) {
+                final List<CompletableFuture<HttpResponse<String>>> calls = new ArrayList<>();
+                for (int i = 0; i < 4; i++) {
+                    calls.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+                }
+                calls.forEach(call -> assertEquals(200, call.join().statusCode()));
+            }
+
+            assertShifted(balancer);
+        }
+    }
+
+    @Test
+    void select_ShouldEjectFailingReplica_AfterConsecutiveFailures() throws Exception {
+        slow.stubFor(WireMock.get("/test").willReturn(WireMock.ok("slow")));
+
+        try (final LoadBalancer balancer = LoadBalancer.builder(EndpointSource.of(fast.baseUrl(), medium.baseUrl(), slow.baseUrl()))
+                                                       .failureThreshold(3)
+                                                       .initialLatency(Duration.ofMillis(1))
+                                                       .idleDecay(Duration.ZERO)
+                                                       .build()) {
+            final LoadBalancedHttpClient client = LoadBalancedHttpClient.create(balancer, HTTP_CLIENT::build);
+            final HttpRequest request = HttpRequest.newBuilder(URI.create("http://service/test")).GET().build();
+
+            // the replica is among the fastest until it starts failing, so it keeps being picked until ejected
+            for (int i = 0; i < 30; i++) {
+                client.send(request, HttpResponse.BodyHandlers.ofString());
+            }
+            slow.stubFor(WireMock.get("/test").willReturn(WireMock.serviceUnavailable()));
+            slow.resetRequests();
+
+            for (int i = 0; i < 60; i++) {
+                client.send(request, HttpResponse.BodyHandlers.ofString());
+            }
+
+            final EndpointStats failing = stats(balancer, slow);
+            assertTrue(failing.ejected(), failing::toString);
+            assertEquals(3, failing.failures());
+            assertEquals(3, slow.getAllServeEvents().size());
+        }
+    }
+
+    @Test
+    void select_ShouldAvoidFastFailingReplica_WhenEjectionIsCapped() throws Exception {
+        slow.stubFor(WireMock.get("/test").willReturn(WireMock.serviceUnavailable()));
+
+        try (final LoadBalancer balancer = LoadBalancer.builder(EndpointSource.of(fast.baseUrl(), medium.baseUrl(), slow.baseUrl()))
+                                                       .maxEjectionPercent(0)
+                                                       .build()) {
+            final LoadBalancedHttpClient client = LoadBalancedHttpClient.create(balancer, HTTP_CLIENT::build);
+            final HttpRequest request = HttpRequest.newBuilder(URI.create("http://service/test")).GET().build();
+
+            for (int i = 0; i < 60; i++) {
+                client.send(request, HttpResponse.BodyHandlers.ofString());
+            }
+
+            final int fastRequests = fast.getAllServeEvents().size();
+            final int mediumRequests = medium.getAllServeEvents().size();
+            final int failingRequests = slow.getAllServeEvents().size();
+            final String distribution = "fast=" + fastRequests + ", medium=" + mediumRequests + ", failing=" + failingRequests
+                                        + ", stats=" + balancer.stats();
+            assertTrue(failingRequests < fastRequests && failingRequests < mediumRequests, distribution);
+            assertTrue(stats(balancer, slow).latency().compareTo(stats(balancer, medium).latency()) > 0, distribution);
+        }
+    }
+
+    @Test
+    void refresh_ShouldPickUpNewEndpoints_AndDropRemovedOnes() throws Exception {
+        final AtomicReference<List<Endpoint>> discovered = new AtomicReference<>(List.of(Endpoint.of(fast.baseUrl())));
+        final List<Endpoint> removed = new ArrayList<>();
+
+        try (final LoadBalancer balancer = LoadBalancer.builder(discovered::get)
+                                                       .refreshInterval(Duration.ofMillis(50))
+                                                       .build()) {
+            balancer.onRemoved(removed::add);
+            final LoadBalancedHttpClient client = LoadBalancedHttpClient.create(balancer, HTTP_CLIENT::build);
+            final HttpRequest request = HttpRequest.newBuilder(URI.create("http://service/test")).GET().build();
+
+            assertEquals("fast", client.send(request, HttpResponse.BodyHandlers.ofString()).body());
+
+            discovered.set(List.of(Endpoint.of(medium.baseUrl())));
+            Thread.sleep(300);
+
+            assertEquals("medium", client.send(request, HttpResponse.BodyHandlers.ofString()).body());
+            assertEquals(List.of(Endpoint.of(medium.baseUrl())), balancer.endpoints());
+            assertEquals(List.of(Endpoint.of(fast.baseUrl())), removed);
+        }
+    }
+
+    @Test
+    void select_ShouldSpreadByInFlightRequests_WhenEndpointsHaveNoSamples() {
+        try (final LoadBalancer balancer = LoadBalancer.builder(EndpointSource.of(fast.baseUrl(), medium.baseUrl()))
+                                                       .build()) {
+            final List<LoadBalancer.Selection> selections = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                selections.add(balancer.select());
+            }
+
+            final int fastInFlight = stats(balancer, fast).inFlight();
+            final int mediumInFlight = stats(balancer, medium).inFlight();
+            assertEquals(40, fastInFlight + mediumInFlight);
+            assertTrue(Math.abs(fastInFlight - mediumInFlight) <= 1, balancer.stats()::toString);
+
+            selections.forEach(LoadBalancer.Selection::cancel);
+        }
+    }
+
+    @Test
+    void select_ShouldSpreadByInFlightRequests_WhenLatencyHasDecayed() throws Exception {
+        try (final LoadBalancer balancer = LoadBalancer.builder(EndpointSource.of(fast.baseUrl(), medium.baseUrl()))
+                                                       .idleDecay(Duration.ofMillis(1))
+                                                       .build()) {
+            final LoadBalancedHttpClient client = LoadBalancedHttpClient.create(balancer, HTTP_CLIENT::build);
+            final HttpRequest request = HttpRequest.newBuilder(URI.create("http://service/test")).GET().build();
+            for (int i = 0; i < 200 && (fast.getAllServeEvents().size() < 5 || medium.getAllServeEvents().size() < 5); i++) {
+                client.send(request, HttpResponse.BodyHandlers.ofString());
+            }
+            assertTrue(medium.getAllServeEvents().size() >= 5, balancer.stats()::toString);
+            Thread.sleep(100);
+
+            final List<LoadBalancer.Selection> selections = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                selections.add(balancer.select());
+            }
+
+            // both decayed to the same floor rather than to zero, so the in-flight count decides
+            final int fastInFlight = stats(balancer, fast).inFlight();
+            final int mediumInFlight = stats(balancer, medium).inFlight();
+            assertEquals(40, fastInFlight + mediumInFlight);
+            assertTrue(Math.abs(fastInFlight - mediumInFlight) <= 1, balancer.stats()::toString);
+
+            selections.forEach(LoadBalancer.Selection::cancel);
+        }
+    }
+
+    @Test
+    void resolve_ShouldJoinBasePathAndRequestPath_WithOneSlash() {
+        assertEquals(URI.create("http://host/api/items"), Endpoint.of("http://host/api").resolve(URI.create("items")));
+        assertEquals(URI.create("http://host/api/items"), Endpoint.of("http://host/api/").resolve(URI.create("/items")));
+        assertEquals(URI.create("http://host/api/items?q=a%20b"),
+                     Endpoint.of("http://host/api").resolve(URI.create("http://service/items?q=a%20b")));
+        assertEquals(URI.create("http://host/items"), Endpoint.of("http://host").resolve(URI.create("items")));
+        assertEquals(URI.create("http://host/api"), Endpoint.of("http://host/api").resolve(URI.create("http://service")));
+    }
+
+    private static void assertShifted(final LoadBalancer balancer) {
+        final int fastRequests = fast.getAllServeEvents().size();
+        final int mediumRequests = medium.getAllServeEvents().size();
+        final int slowRequests = slow.getAllServeEvents().size();
+        final String distribution = "fast=" + fastRequests + ", medium=" + mediumRequests + ", slow=" + slowRequests
+                                    + ", stats=" + balancer.stats();
+
+        assertEquals(80, fastRequests + mediumRequests + slowRequests, distribution);
+        assertTrue(slowRequests <= 8, distribution);
+        assertTrue(stats(balancer, slow).latency().compareTo(stats(balancer, fast).latency()) > 0, distribution);
+    }
+
+    private static EndpointStats stats(final LoadBalancer balancer, final WireMockExtension replica) {
+        return balancer.stats()
+                       .stream()
+                       .filter(stats -> stats.endpoint().equals(Endpoint.of(replica.baseUrl())))
+                       .findFirst()
+                       .orElseThrow();
+    }
+
+    private static WireMockExtension replica() {
+        return WireMockExtension.newInstance()
+                                .options(WireMockConfiguration.wireMockConfig()
+                                                              .dynamicPort())
+                                .build();
+    }
+}
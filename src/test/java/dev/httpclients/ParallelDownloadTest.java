@@ -0,0 +1,210 @@
+package dev.httpclients;
+
+import dev.httpclients.download.DownloadException;
+import dev.httpclients.download.ObjectChangedException;
+import dev.httpclients.download.DownloadResult;
+import dev.httpclients.download.ParallelDownloader;
+import dev.httpclients.download.RangeFetcher;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParallelDownloadTest {
+
+    private static final HttpClient HTTP_CLIENT = HttpClient.newBuilder()
+                                                            .version(HttpClient.Version.HTTP_1_1)
+                                                            .connectTimeout(Duration.ofSeconds(5L))
+                                                            .build();
+
+    private static final byte[] CONTENT = content(3 * 1024 * 1024 + 17);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void download_ShouldRetryFailedRangesAndVerifyEtag_WithJavaHttpClient() throws Exception {
+        try (final RangeServer server = new RangeServer(CONTENT, true, 0)) {
+            server.failNextRanges(2);
+
+            final Path target = tempDir.resolve("object.bin");
+            final DownloadResult result = ParallelDownloader.builder(RangeFetcher.javaHttpClient(HTTP_CLIENT))
+                                                            .ranges(4)
+                                                            .minRangeSize(64 * 1024)
+                                                            .build()
+                                                            .download(server.uri(), target);
+
+            assertEquals(CONTENT.length, result.size());
+            assertEquals(4, result.ranges());
+            assertEquals(2, result.retries());
+            assertTrue(result.checksumVerified());
+            assertArrayEquals(CONTENT, Files.readAllBytes(target));
+        }
+    }
+
+    @Test
+    void download_ShouldRetryFailedRangesAndVerifyEtag_WithWebClient() throws Exception {
+        try (final RangeServer server = new RangeServer(CONTENT, true, 0)) {
+            server.failNextRanges(1);
+
+            final Path target = tempDir.resolve("object.bin");
+            final DownloadResult result = ParallelDownloader.builder(RangeFetcher.webClient(WebClient.create()))
+                                                            .ranges(8)
+                                                            .minRangeSize(64 * 1024)
+                                                            .build()
+                                                            .download(server.uri(), target);
+
+            assertEquals(CONTENT.length, result.size());
+            assertEquals(8, result.ranges());
+            assertEquals(1, result.retries());
+            assertTrue(result.checksumVerified());
+            assertArrayEquals(CONTENT, Files.readAllBytes(target));
+        }
+    }
+
+    @Test
+    void download_ShouldSendLastModifiedAsIfRange_WhenEtagIsWeak() throws Exception {
+        try (final RangeServer server = new RangeServer(CONTENT, true, 0)) {
+            server.weakEtag();
+
+            final Path target = tempDir.resolve("object.bin");
+            final DownloadResult result = ParallelDownloader.builder(RangeFetcher.javaHttpClient(HTTP_CLIENT))
+                                                            .ranges(4)
+                                                            .minRangeSize(64 * 1024)
+                                                            .build()
+                                                            .download(server.uri(), target);
+
+            assertEquals(4, result.ranges());
+            assertEquals(0, result.retries());
+            assertEquals(4, server.rangeRequests());
+            assertFalse(result.checksumVerified());
+            assertArrayEquals(CONTENT, Files.readAllBytes(target));
+        }
+    }
+
+    @Test
+    void download_ShouldProbeWithRangedGet_WhenHeadIsRejected_WithJavaHttpClient() throws Exception {
+        try (final RangeServer server = new RangeServer(CONTENT, true, 0)) {
+            server.rejectHead(405);
+
+            final Path target = tempDir.resolve("object.bin");
+            final DownloadResult result = ParallelDownloader.builder(RangeFetcher.javaHttpClient(HTTP_CLIENT))
+                                                            .ranges(4)
+                                                            .minRangeSize(64 * 1024)
+                                                            .build()
+                                                            .download(server.uri(), target);
+
+            assertEquals(CONTENT.length, result.size());
+            assertEquals(4, result.ranges());
+            assertTrue(result.checksumVerified());
+            assertArrayEquals(CONTENT, Files.readAllBytes(target));
+        }
+    }
+
+    @Test
+    void download_ShouldProbeWithRangedGet_WhenHeadIsRejected_WithWebClient() throws Exception {
+        try (final RangeServer server = new RangeServer(CONTENT, true, 0)) {
+            server.rejectHead(403);
+
+            final Path target = tempDir.resolve("object.bin");
+            final DownloadResult result = ParallelDownloader.builder(RangeFetcher.webClient(WebClient.create()))
+                                                            .ranges(4)
+                                                            .minRangeSize(64 * 1024)
+                                                            .build()
+                                                            .download(server.uri(), target);
+
+            assertEquals(CONTENT.length, result.size());
+            assertEquals(4, result.ranges());
+            assertTrue(result.checksumVerified());
+            assertArrayEquals(CONTENT, Files.readAllBytes(target));
+        }
+    }
+
+    @Test
+    void download_ShouldFail_WhenProbeGetsServerError() throws Exception {
+        try (final RangeServer server = new RangeServer(CONTENT, true, 0)) {
+            server.rejectHead(503);
+
+            final Path target = tempDir.resolve("object.bin");
+
+            assertThrows(DownloadException.class, () -> ParallelDownloader.builder(RangeFetcher.javaHttpClient(HTTP_CLIENT))
+                                                                          .build()
+                                                                          .download(server.uri(), target));
+            assertThrows(DownloadException.class, () -> ParallelDownloader.builder(RangeFetcher.webClient(WebClient.create()))
+                                                                          .build()
+                                                                          .download(server.uri(), target));
+            assertEquals(0, server.rangeRequests());
+        }
+    }
+
+    @Test
+    void download_ShouldFailWithoutRetrying_WhenObjectChangesDuringDownload() throws Exception {
+        try (final RangeServer server = new RangeServer(CONTENT, true, 0)) {
+            server.changeAfterHead();
+
+            final Path target = tempDir.resolve("object.bin");
+
+            assertThrows(ObjectChangedException.class, () -> ParallelDownloader.builder(RangeFetcher.webClient(WebClient.create()))
+                                                                               .ranges(4)
+                                                                               .minRangeSize(64 * 1024)
+                                                                               .maxAttemptsPerRange(3)
+                                                                               .build()
+                                                                               .download(server.uri(), target));
+            assertTrue(server.fullResponses() <= 4, () -> "full responses: " + server.fullResponses());
+        }
+    }
+
+    @Test
+    void download_ShouldCancelOtherRanges_WhenOneRangeFailsForGood() throws Exception {
+        // each range takes about 3 s at this rate; the failing one drops its connection half way
+        try (final RangeServer server = new RangeServer(CONTENT, true, 256 * 1024)) {
+            server.failNextRanges(1);
+
+            final Path target = tempDir.resolve("object.bin");
+            final long start = System.nanoTime();
+
+            assertThrows(IOException.class, () -> ParallelDownloader.builder(RangeFetcher.javaHttpClient(HTTP_CLIENT))
+                                                                    .ranges(4)
+                                                                    .minRangeSize(64 * 1024)
+                                                                    .maxAttemptsPerRange(1)
+                                                                    .build()
+                                                                    .download(server.uri(), target));
+            final Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+            assertTrue(elapsed.compareTo(Duration.ofMillis(2500)) < 0, elapsed::toString);
+        }
+    }
+
+    @Test
+    void download_ShouldFallBackToSingleStream_WhenServerIgnoresRanges() throws Exception {
+        try (final RangeServer server = new RangeServer(CONTENT, false, 0)) {
+            final Path target = tempDir.resolve("object.bin");
+            final DownloadResult result = ParallelDownloader.builder(RangeFetcher.javaHttpClient(HTTP_CLIENT))
+                                                            .ranges(4)
+                                                            .build()
+                                                            .download(server.uri(), target);
+
+            assertEquals(1, result.ranges());
+            assertEquals(0, server.rangeRequests());
+            assertArrayEquals(CONTENT, Files.readAllBytes(target));
+        }
+    }
+
+    private static byte[] content(final int size) {
+        final byte[] content = new byte[size];
+        new Random(42).nextBytes(content);
+
+        return content;
+    }
+}
@@ -0,0 +1,138 @@
+package dev.httpclients;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import dev.httpclients.buffer.BufferPool;
+import dev.httpclients.buffer.PooledBody;
+import dev.httpclients.buffer.PooledBodyHandlers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PooledBufferTest {
+
+    @RegisterExtension
+    static WireMockExtension wm =
+            WireMockExtension.newInstance()
+                             .options(WireMockConfiguration.wireMockConfig()
+                                                           .dynamicPort())
+                             .build();
+
+    private static final HttpClient HTTP_CLIENT = HttpClient.newBuilder()
+                                                            .version(HttpClient.Version.HTTP_1_1)
+                                                            .connectTimeout(Duration.ofSeconds(5L))
+                                                            .build();
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final BufferPool pool = new BufferPool();
+
+    @BeforeEach
+    void enableLeakDetection() {
+        pool.setLeakDetection(true);
+    }
+
+    @AfterEach
+    void assertNoLeaks() {
+        assertEquals(0, pool.outstanding(), () -> pool.leaks()
+                                                      .stream()
+                                                      .map(trace -> {
+                                                          final StringWriter out = new StringWriter();
+                                                          trace.printStackTrace(new PrintWriter(out));
+                                                          return out.toString();
+                                                      })
+                                                      .collect(Collectors.joining("\n")));
+    }
+
+    @Test
+    void sendRequest_ShouldRoundTripBodiesThroughPooledBuffers() throws Exception {
+        final String httpBaseUrl = wm.getRuntimeInfo().getHttpBaseUrl();
+        final String url = "/echo";
+        final byte[] payload = "0123456789abcdef".repeat(10_000).getBytes();
+
+        wm.stubFor(WireMock.post(url).willReturn(WireMock.aResponse()
+                                                         .withStatus(200)
+                                                         .withBody(payload)));
+
+        try (final PooledBody request = PooledBody.write(pool, out -> out.write(payload))) {
+            final HttpResponse<PooledBody> response = HTTP_CLIENT.send(HttpRequest.newBuilder(URI.create(httpBaseUrl + url))
+                                                                                  .POST(request.publisher())
+                                                                                  .build(),
+                                                                       PooledBodyHandlers.ofPooledBody(pool));
+
+            try (final PooledBody body = response.body()) {
+                assertEquals(200, response.statusCode());
+                assertEquals(payload.length, body.size());
+                assertArrayEquals(payload, body.inputStream().readAllBytes());
+                assertArrayEquals(payload, body.toByteArray());
+            }
+        }
+
+        wm.verify(WireMock.postRequestedFor(WireMock.urlEqualTo(url))
+                          .withRequestBody(WireMock.binaryEqualTo(payload)));
+    }
+
+    @Test
+    void sendRequest_ShouldReuseBuffers_WhenMappingJsonResponses() {
+        final String httpBaseUrl = wm.getRuntimeInfo().getHttpBaseUrl();
+        final String url = "/json";
+
+        wm.stubFor(WireMock.get(url).willReturn(WireMock.aResponse()
+                                                        .withStatus(200)
+                                                        .withBody("{\"status\":\"" + "x".repeat(50_000) + "\"}")));
+
+        final HttpResponse.BodyHandler<Map<String, String>> handler =
+                PooledBodyHandlers.ofPooledBody(pool, body -> {
+                    try {
+                        return OBJECT_MAPPER.readValue(body.inputStream(), new TypeReference<>() {});
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+
+        for (int i = 0; i < 20; i++) {
+            final Map<String, String> result = HTTP_CLIENT.sendAsync(HttpRequest.newBuilder(URI.create(httpBaseUrl + url))
+                                                                                .GET()
+                                                                                .build(),
+                                                                     handler)
+                                                          .join()
+                                                          .body();
+
+            assertEquals(50_000, result.get("status").length());
+        }
+
+        // 4 chunks per response; without pooling that would be 80 allocations. Chunks may be filled and released on
+        // different client threads, so each of those threads warms up its own cache.
+        Assertions.assertTrue(pool.allocated() <= 40, "allocated " + pool.allocated());
+    }
+
+    @Test
+    void release_ShouldFail_WhenBufferIsReleasedTwice() {
+        final var buffer = pool.acquire(100);
+
+        assertEquals(4096, buffer.capacity());
+        Assertions.assertTrue(buffer.release());
+        Assertions.assertThrows(IllegalStateException.class, buffer::release);
+        Assertions.assertThrows(IllegalStateException.class, buffer::retain);
+    }
+}
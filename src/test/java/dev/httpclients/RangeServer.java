@@ -0,0 +1,183 @@
+package dev.httpclients;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local server for a single object that honours {@code Range}/{@code If-Range}. Like nginx, it ignores the range when
+ * {@code If-Range} carries a weak ETag, and accepts the {@code Last-Modified} date instead. Each response can be throttled to
+ * mimic the per-connection throughput limit of a remote store, and range responses can be cut off half way to
+ * exercise retries. WireMock does not serve partial content for stubs, hence this small server.
+ */
+public final class RangeServer implements AutoCloseable {
+
+    private static final Pattern RANGE = Pattern.compile("bytes=(\\d+)-(\\d+)");
+    private static final int CHUNK = 16 * 1024;
+    private static final String LAST_MODIFIED = "Wed, 21 Oct 2015 07:28:00 GMT";
+
+    private final byte[] content;
+    private volatile String etag;
+    private volatile int headStatus = 200;
+    private volatile boolean changeAfterHead;
+    private final boolean acceptRanges;
+    private final long bytesPerSecond;
+    private final AtomicInteger rangeFailures = new AtomicInteger();
+    private final AtomicInteger rangeRequests = new AtomicInteger();
+    private final AtomicInteger fullResponses = new AtomicInteger();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final HttpServer server;
+
+    public RangeServer(final byte[] content, final boolean acceptRanges, final long bytesPerSecond) throws Exception {
+        this.content = content;
+        this.etag = "\"" + HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(content)) + "\"";
+        this.acceptRanges = acceptRanges;
+        this.bytesPerSecond = bytesPerSecond;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        this.server.setExecutor(executor);
+        this.server.createContext("/object", this::handle);
+        this.server.start();
+    }
+
+    public URI uri() {
+        return URI.create("http://localhost:" + server.getAddress().getPort() + "/object");
+    }
+
+    /**
+     * Reports the ETag as weak, as servers do for compressed or otherwise transformed representations.
+     */
+    public void weakEtag() {
+        etag = "W/" + etag;
+    }
+
+    /**
+     * Answers {@code HEAD} with the given status and no object headers, like object stores do for presigned URLs.
+     */
+    public void rejectHead(final int status) {
+        headStatus = status;
+    }
+
+    /**
+     * Gives the object a new ETag right after the next {@code HEAD}, as if it was overwritten between the probe and the
+     * range requests.
+     */
+    public void changeAfterHead() {
+        changeAfterHead = true;
+    }
+
+    /**
+     * The next {@code count} range responses send only half of their bytes and then drop the connection.
+     */
+    public void failNextRanges(final int count) {
+        rangeFailures.set(count);
+    }
+
+    public int rangeRequests() {
+        return rangeRequests.get();
+    }
+
+    public int fullResponses() {
+        return fullResponses.get();
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        try (exchange; final InputStream in = exchange.getRequestBody()) {
+            in.transferTo(OutputStream.nullOutputStream());
+
+            exchange.getResponseHeaders().set("ETag", etag);
+            exchange.getResponseHeaders().set("Last-Modified", LAST_MODIFIED);
+            if (acceptRanges) {
+                exchange.getResponseHeaders().set("Accept-Ranges", "bytes");
+            }
+
+            if ("HEAD".equals(exchange.getRequestMethod()) && headStatus != 200) {
+                exchange.getResponseHeaders().clear();
+                exchange.sendResponseHeaders(headStatus, -1);
+                return;
+            }
+            if ("HEAD".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Content-Length", String.valueOf(content.length));
+                exchange.sendResponseHeaders(200, -1);
+                if (changeAfterHead) {
+                    changeAfterHead = false;
+                    etag = "\"changed\"";
+                }
+                return;
+            }
+
+            final String range = exchange.getRequestHeaders().getFirst("Range");
+            final String ifRange = exchange.getRequestHeaders().getFirst("If-Range");
+            final Matcher matcher = range == null ? null : RANGE.matcher(range);
+            if (!acceptRanges || matcher == null || !matcher.matches() || ifRange != null && !validates(ifRange)) {
+                fullResponses.incrementAndGet();
+                exchange.sendResponseHeaders(200, content.length);
+                write(exchange.getResponseBody(), 0, content.length);
+                return;
+            }
+
+            rangeRequests.incrementAndGet();
+            final int first = Integer.parseInt(matcher.group(1));
+            final int last = Math.min(Integer.parseInt(matcher.group(2)), content.length - 1);
+            final int length = last - first + 1;
+
+            exchange.getResponseHeaders().set("Content-Range", "bytes " + first + "-" + last + "/" + content.length);
+            exchange.sendResponseHeaders(206, length);
+
+            if (rangeFailures.getAndUpdate(count -> Math.max(0, count - 1)) > 0) {
+                write(exchange.getResponseBody(), first, length / 2);
+                exchange.getResponseBody().flush();
+                // closing with bytes missing makes the server drop the connection
+                return;
+            }
+
+            write(exchange.getResponseBody(), first, length);
+        }
+    }
+
+    private boolean validates(final String ifRange) {
+        return ifRange.equals(LAST_MODIFIED) || !ifRange.startsWith("W/") && ifRange.equals(etag);
+    }
+
+    private void write(final OutputStream out, final int offset, final int length) throws IOException {
+        final long start = System.nanoTime();
+        int written = 0;
+        while (written < length) {
+            final int count = Math.min(CHUNK, length - written);
+            out.write(content, offset + written, count);
+            written += count;
+
+            if (bytesPerSecond > 0) {
+                final long due = start + written * 1_000_000_000L / bytesPerSecond;
+                final long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    try {
+                        TimeUnit.NANOSECONDS.sleep(wait);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,129 @@
+package dev.httpclients;
+
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import dev.httpclients.capture.CapturedExchange;
+import dev.httpclients.capture.JavaHttpClientCapture;
+import dev.httpclients.capture.ReplayServer;
+import dev.httpclients.capture.TrafficRecorder;
+import dev.httpclients.capture.WebClientCapture;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrafficCaptureTest {
+
+    @RegisterExtension
+    static WireMockExtension wm =
+            WireMockExtension.newInstance()
+                             .options(WireMockConfiguration.wireMockConfig()
+                                                           .dynamicPort())
+                             .build();
+
+    private static final HttpClient HTTP_CLIENT = HttpClient.newBuilder()
+                                                            .version(HttpClient.Version.HTTP_1_1)
+                                                            .connectTimeout(Duration.ofSeconds(5L))
+                                                            .build();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void record_ShouldCaptureExchangesFromBothEngines() throws IOException {
+        final String httpBaseUrl = wm.getRuntimeInfo().getHttpBaseUrl();
+        final Path capture = tempDir.resolve("capture.jsonl");
+
+        wm.stubFor(WireMock.get("/java").willReturn(WireMock.aResponse()
+                                                            .withStatus(200)
+                                                            .withFixedDelay(200)
+                                                            .withBody("Hello, java!")));
+        wm.stubFor(WireMock.post("/web").willReturn(WireMock.aResponse()
+                                                            .withStatus(201)
+                                                            .withBody("Hello, web!")));
+
+        try (final TrafficRecorder recorder = new TrafficRecorder(capture)) {
+            new JavaHttpClientCapture(HTTP_CLIENT, recorder).sendAsync(HttpRequest.newBuilder(URI.create(httpBaseUrl + "/java"))
+                                                                                  .GET()
+                                                                                  .build())
+                                                            .join();
+
+            final String body = WebClient.builder()
+                                         .filter(WebClientCapture.filter(recorder))
+                                         .build()
+                                         .method(HttpMethod.POST)
+                                         .uri(httpBaseUrl + "/web")
+                                         .bodyValue("request body")
+                                         .retrieve()
+                                         .bodyToMono(String.class)
+                                         .block();
+
+            assertEquals("Hello, web!", body);
+        }
+
+        final List<CapturedExchange> exchanges = TrafficRecorder.read(capture);
+
+        assertEquals(2, exchanges.size());
+        assertEquals("GET", exchanges.get(0).method());
+        assertEquals(200, exchanges.get(0).status());
+        assertArrayEquals("Hello, java!".getBytes(), exchanges.get(0).responseBody());
+        assertTrue(exchanges.get(0).latencyMillis() >= 200);
+        assertEquals("POST", exchanges.get(1).method());
+        assertEquals(201, exchanges.get(1).status());
+        assertArrayEquals("request body".getBytes(), exchanges.get(1).requestBody());
+    }
+
+    @Test
+    void replay_ShouldServeRecordedExchangeWithRecordedLatency() throws Exception {
+        final Path capture = tempDir.resolve("capture.jsonl");
+
+        try (final TrafficRecorder recorder = new TrafficRecorder(capture)) {
+            recorder.record(new CapturedExchange(System.currentTimeMillis(),
+                                                 "GET",
+                                                 "https://example.com/test?id=1",
+                                                 Map.of(),
+                                                 new byte[0],
+                                                 200,
+                                                 Map.of("Content-Type", List.of("text/plain")),
+                                                 "Hello, replay!".getBytes(),
+                                                 300L));
+        }
+
+        try (final ReplayServer server = ReplayServer.start(capture)) {
+            final long start = System.nanoTime();
+            final HttpResponse<String> response = HTTP_CLIENT.send(HttpRequest.newBuilder(URI.create(server.baseUrl() + "/test?id=1"))
+                                                                              .GET()
+                                                                              .build(),
+                                                                   HttpResponse.BodyHandlers.ofString());
+            final long tookMillis = (System.nanoTime() - start) / 1_000_000L;
+
+            assertEquals(200, response.statusCode());
+            assertEquals("Hello, replay!", response.body());
+            assertEquals("text/plain", response.headers().firstValue("Content-Type").orElseThrow());
+            assertTrue(tookMillis >= 300, "took " + tookMillis + " ms");
+
+            final HttpResponse<String> missing = HTTP_CLIENT.send(HttpRequest.newBuilder(URI.create(server.baseUrl() + "/unknown"))
+                                                                             .GET()
+                                                                             .build(),
+                                                                  HttpResponse.BodyHandlers.ofString());
+
+            assertEquals(404, missing.statusCode());
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package dev.httpclients.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.httpclients.codegen.GeneratedClient;
+import io.netty.buffer.Unpooled;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.support.WebClientAdapter;
+import org.springframework.web.service.annotation.GetExchange;
+import org.springframework.web.service.invoker.HttpServiceProxyFactory;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calls per second of the same declarative interface through the {@code HttpServiceProxyFactory} proxy and through
+ * the classes generated by {@code GeneratedClientProcessor}, against a local Reactor Netty server answering with a
+ * small fixed JSON body (the JDK's built-in server adds Nagle delays that would hide the client-side cost). Each call
+ * expands a path variable, a query parameter and a header and decodes the body into a record.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Threads(4)
+@Fork(1)
+public class DeclarativeClientBenchmark {
+
+    private static final byte[] ITEM = "{\"id\":42,\"name\":\"widget\",\"price\":9.99}".getBytes(StandardCharsets.UTF_8);
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+    private DisposableServer server;
+    private ItemClient proxy;
+    private ItemClient generatedWebClient;
+    private ItemClient generatedJdk;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        server = HttpServer.create()
+                           .host("localhost")
+                           .port(0)
+                           .route(routes -> routes.get("/items/{id}", (request, response) ->
+                                   response.header("Content-Type", "application/json")
+                                           .sendObject(Mono.fromSupplier(() -> Unpooled.wrappedBuffer(ITEM)))))
+                           .bindNow();
+
+        final String baseUrl = "http://localhost:" + server.port();
+        final WebClient webClient = WebClient.builder().baseUrl(baseUrl).build();
+
+        proxy = HttpServiceProxyFactory.builderFor(WebClientAdapter.create(webClient))
+                                       .build()
+                                       .createClient(ItemClient.class);
+        generatedWebClient = new WebClient_DeclarativeClientBenchmark_ItemClient(webClient, baseUrl);
+        generatedJdk = new Jdk_DeclarativeClientBenchmark_ItemClient(HttpClient.newBuilder()
+                                                                               .version(HttpClient.Version.HTTP_1_1)
+                                                                               .executor(executor)
+                                                                               .build(),
+                                                                     baseUrl,
+                                                                     new ObjectMapper());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.disposeNow();
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public Item proxyWebClient() {
+        return proxy.item(42, "full", "bench").block();
+    }
+
+    @Benchmark
+    public Item generatedWebClient() {
+        return generatedWebClient.item(42, "full", "bench").block();
+    }
+
+    @Benchmark
+    public Item generatedJdk() {
+        return generatedJdk.item(42, "full", "bench").block();
+    }
+
+    public static void main(final String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(DeclarativeClientBenchmark.class.getSimpleName())
+                                       .build())
+                .run();
+    }
+
+    public record Item(long id, String name, double price) {
+    }
+
+    @GeneratedClient
+    interface ItemClient {
+
+        @GetExchange("/items/{id}")
+        Mono<Item> item(@PathVariable("id") long id, @RequestParam("view") String view, @RequestHeader("X-Client") String client);
+    }
+}
@@ -0,0 +1,144 @@
+package dev.httpclients.benchmark;
+
+import com.sun.net.httpserver.HttpServer;
+import dev.httpclients.buffer.BufferPool;
+import dev.httpclients.buffer.PooledBody;
+import dev.httpclients.buffer.PooledBodyHandlers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Heap {@code byte[]} bodies vs pooled direct buffers on the JDK client, against a local echo server.
+ * <p>
+ * Run with {@code main} to get the {@code gc} profiler columns ({@code gc.alloc.rate.norm}, {@code gc.count},
+ * {@code gc.time}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class PooledBodyBenchmark {
+
+    @Param({"16384", "262144"})
+    int bodySize;
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private HttpClient client;
+    private BufferPool pool;
+    private URI uri;
+    private byte[] payload;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        payload = new byte[bodySize];
+        Arrays.fill(payload, (byte) 'x');
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        executor = Executors.newFixedThreadPool(8);
+        server.setExecutor(executor);
+        server.createContext("/echo", exchange -> {
+            try (exchange; final InputStream in = exchange.getRequestBody()) {
+                in.transferTo(OutputStream.nullOutputStream());
+                exchange.sendResponseHeaders(200, payload.length);
+                exchange.getResponseBody().write(payload);
+            }
+        });
+        server.start();
+
+        uri = URI.create("http://localhost:" + server.getAddress().getPort() + "/echo");
+        client = HttpClient.newBuilder()
+                           .version(HttpClient.Version.HTTP_1_1)
+                           .build();
+        pool = new BufferPool();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public void heapByteArray(final Blackhole blackhole) throws Exception {
+        final HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(uri)
+                                                                     .POST(HttpRequest.BodyPublishers.ofByteArray(payload))
+                                                                     .build(),
+                                                          HttpResponse.BodyHandlers.ofByteArray());
+
+        blackhole.consume(checksum(response.body()));
+    }
+
+    @Benchmark
+    public void pooledDirect(final Blackhole blackhole) throws Exception {
+        try (final PooledBody request = PooledBody.write(pool, out -> out.write(payload))) {
+            final HttpResponse<PooledBody> response = client.send(HttpRequest.newBuilder(uri)
+                                                                             .POST(request.publisher())
+                                                                             .build(),
+                                                                  PooledBodyHandlers.ofPooledBody(pool));
+
+            try (final PooledBody body = response.body(); final InputStream in = body.inputStream()) {
+                final byte[] scratch = new byte[4096];
+                long checksum = 0;
+                int read;
+                while ((read = in.read(scratch)) > 0) {
+                    checksum += checksum(scratch, read);
+                }
+                blackhole.consume(checksum);
+            }
+        }
+    }
+
+    private static long checksum(final byte[] bytes) {
+        return checksum(bytes, bytes.length);
+    }
+
+    private static long checksum(final byte[] bytes, final int length) {
+        long sum = 0;
+        for (int i = 0; i < length; i++) {
+            sum += bytes[i];
+        }
+
+        return sum;
+    }
+
+    public static void main(final String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(PooledBodyBenchmark.class.getSimpleName())
+                                       .addProfiler(GCProfiler.class)
+                                       .build())
+                .run();
+    }
+}
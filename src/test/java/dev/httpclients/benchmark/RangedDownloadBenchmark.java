@@ -0,0 +1,91 @@
+package dev.httpclients.benchmark;
+
+import dev.httpclients.RangeServer;
+import dev.httpclients.download.DownloadResult;
+import dev.httpclients.download.ParallelDownloader;
+import dev.httpclients.download.RangeFetcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Download time of an 8 MiB object from a local range-capable server throttled to 8 MiB/s per connection, so a
+ * single stream needs about a second and throughput should scale with the number of ranges.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class RangedDownloadBenchmark {
+
+    private static final int OBJECT_SIZE = 8 * 1024 * 1024;
+    private static final long BYTES_PER_SECOND_PER_CONNECTION = 8 * 1024 * 1024;
+
+    @Param({"1", "2", "4", "8"})
+    int ranges;
+
+    @Param({"jdk", "webclient"})
+    String engine;
+
+    private RangeServer server;
+    private ParallelDownloader downloader;
+    private Path target;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        final byte[] content = new byte[OBJECT_SIZE];
+        new Random(42).nextBytes(content);
+
+        server = new RangeServer(content, true, BYTES_PER_SECOND_PER_CONNECTION);
+        target = Files.createTempFile("ranged-download", ".bin");
+
+        final RangeFetcher fetcher = "jdk".equals(engine)
+                                     ? RangeFetcher.javaHttpClient(HttpClient.newBuilder()
+                                                                             .version(HttpClient.Version.HTTP_1_1)
+                                                                             .build())
+                                     : RangeFetcher.webClient(WebClient.create());
+        downloader = ParallelDownloader.builder(fetcher)
+                                       .ranges(ranges)
+                                       .minRangeSize(256 * 1024)
+                                       .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        server.close();
+        Files.deleteIfExists(target);
+    }
+
+    @Benchmark
+    public DownloadResult download() throws Exception {
+        return downloader.download(server.uri(), target);
+    }
+
+    public static void main(final String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(RangedDownloadBenchmark.class.getSimpleName())
+                                       .build())
+                .run();
+    }
+}